@@ -1,25 +1,74 @@
 package brightspot.reviewcycle;
 
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
 /**
- * Enum used in {@link brightspot.reviewcycle.notification.ReviewCycleDueWarningDuration}
- * and {@link ReviewCycleDurationForContent} for distinction between days, months, and years.
+ * Enum used in {@link ReviewCycleSettings} for how often a site is checked for content that is due for review.
  */
 public enum NotificationInterval {
 
-    HOUR("Every hour"),
-    DAY("Every day"),
-    MINUTE("Every minute");
+    HOUR("Every hour", TimeUnit.HOURS.toMillis(1)),
+    DAY("Every day", TimeUnit.DAYS.toMillis(1)),
+    MINUTE("Every minute", TimeUnit.MINUTES.toMillis(1));
 
     private final String interval;
+    private final long millis;
 
-    NotificationInterval(String interval) {
+    NotificationInterval(String interval, long millis) {
         this.interval = interval;
+        this.millis = millis;
     }
 
     public String getInterval() {
         return interval;
     }
 
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Returns the start of the interval containing the given time, aligned to UTC minute, hour or day boundaries,
+     * like {@link com.psddev.dari.util.RepeatingTask#everyMinute(DateTime)} and its siblings do.
+     *
+     * @param currentTime time to calculate from.
+     * @return never {@code null}.
+     */
+    public DateTime getRunTime(DateTime currentTime) {
+        DateTime utcTime = currentTime.withZone(DateTimeZone.UTC);
+
+        switch (this) {
+            case DAY:
+                return utcTime.withTimeAtStartOfDay();
+            case HOUR:
+                return utcTime.hourOfDay().roundFloorCopy();
+            default:
+                return utcTime.minuteOfDay().roundFloorCopy();
+        }
+    }
+
+    /**
+     * Returns the start of the next interval after the given time, aligned to UTC minute, hour or day boundaries.
+     *
+     * @param currentTime time to calculate from.
+     * @return never {@code null}.
+     */
+    public DateTime getNextRunTime(DateTime currentTime) {
+        DateTime utcTime = currentTime.withZone(DateTimeZone.UTC);
+
+        switch (this) {
+            case DAY:
+                return utcTime.withTimeAtStartOfDay().plusDays(1);
+            case HOUR:
+                return utcTime.hourOfDay().roundFloorCopy().plusHours(1);
+            default:
+                return utcTime.minuteOfDay().roundFloorCopy().plusMinutes(1);
+        }
+    }
+
     @Override
     public String toString() {
         return getInterval();
@@ -1,17 +1,15 @@
 package brightspot.reviewcycle;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.TimeZone;
 
+import brightspot.reviewcycle.notification.ReviewCycleWatcherCache;
 import com.psddev.cms.db.Content;
 import com.psddev.cms.db.Draft;
 import com.psddev.cms.db.Site;
-import com.psddev.cms.db.SiteSettings;
 import com.psddev.cms.db.ToolUi;
 import com.psddev.cms.db.ToolUi.Cluster;
 import com.psddev.cms.db.ToolUi.Tab;
@@ -49,8 +47,6 @@ public class ReviewCycleContentModification extends Modification<HasReviewCycle>
     public static final String REVIEW_CYCLE_DURATION_FIELD_INTERNAL_NAME =
         FIELD_PATH + FIELD_PREFIX + REVIEW_CYCLE_DURATION_FIELD;
 
-    private static final DateFormat FORMAT = new SimpleDateFormat("EEE, MMM dd, yyyy");
-
     @Tab(REVIEW_CYCLE_TAB)
     @Cluster(REVIEW_CYCLE_CLUSTER)
     @InternalName(REVIEW_DATE_FIELD)
@@ -73,6 +69,8 @@ public class ReviewCycleContentModification extends Modification<HasReviewCycle>
     @Indexed
     private ReviewCycleDurationForContent reviewCycleDurationForContentOverride;
 
+    private transient NextReviewDateMemo nextReviewDateMemo;
+
     public Date getReviewDate() {
         return reviewDate;
     }
@@ -89,13 +87,47 @@ public class ReviewCycleContentModification extends Modification<HasReviewCycle>
         this.reviewCycleDurationForContentOverride = reviewCycleDurationForContentOverride;
     }
 
+    /**
+     * Returns the next review date, truncated to days. The result is remembered on this state until the review date,
+     * the override, the owner or the settings of the owner change, so repeated calls don't recalculate it.
+     */
     public Date getNextReviewDate() {
-        Date nextReview = this.calculateNextReviewDate();
-        return Optional.ofNullable(nextReview)
-            .map(Date::toInstant)
-            .map(instant -> instant.truncatedTo(ChronoUnit.DAYS))
-            .map(Date::from)
-            .orElse(null);
+        List<Object> key = getNextReviewDateKey();
+        NextReviewDateMemo memo = nextReviewDateMemo;
+
+        if (memo == null || !memo.key.equals(key)) {
+            Date nextReview = this.calculateNextReviewDate();
+            memo = new NextReviewDateMemo(key, Optional.ofNullable(nextReview)
+                .map(Date::toInstant)
+                .map(instant -> instant.truncatedTo(ChronoUnit.DAYS))
+                .map(Date::from)
+                .orElse(null));
+            nextReviewDateMemo = memo;
+        }
+
+        return memo.value != null ? new Date(memo.value.getTime()) : null;
+    }
+
+    private List<Object> getNextReviewDateKey() {
+        HasReviewCycle originalObject = getOriginalObject();
+        Site owner = originalObject.as(Site.ObjectModification.class).getOwner();
+        ReviewCycleSettingsSnapshot snapshot = ReviewCycleSettingsSnapshot.get(owner);
+        ReviewCycleDurationForContent override = getReviewCycleDurationForContentOverride();
+
+        return Arrays.asList(
+            getReviewDate(),
+            originalObject.as(Content.ObjectModification.class).getUpdateDate(),
+            override != null ? override.getState().getSimpleValues() : null,
+            owner != null ? owner.getId() : null,
+            snapshot != null ? snapshot.getVersion() : null);
+    }
+
+    /**
+     * @return the next review date as it was last saved and indexed, unlike {@link #getNextReviewDate()}, which
+     *     calculates it from the current settings.
+     */
+    public Date getIndexedNextReviewDate() {
+        return nextReviewDate;
     }
 
     public void setNextReviewDate(Date nextReviewDate) {
@@ -106,8 +138,7 @@ public class ReviewCycleContentModification extends Modification<HasReviewCycle>
         Date utcDue = getNextReviewDate();
         String nextReviewDate = "N/A";
         if (utcDue != null) {
-            FORMAT.setTimeZone(TimeZone.getTimeZone("UTC"));
-            nextReviewDate = FORMAT.format(utcDue);
+            nextReviewDate = ReviewCycleDateFormats.formatDueDate(utcDue);
         }
 
         return "This will set the cycle for this specific content. The cycle begins on the last cycle due date. The next cycle due date is " + nextReviewDate + ".";
@@ -177,6 +208,13 @@ public class ReviewCycleContentModification extends Modification<HasReviewCycle>
         super.beforeSave();
     }
 
+    @Override
+    protected void afterSave() {
+
+        // Watchers are stored on the content, so saving it may have changed them
+        ReviewCycleWatcherCache.invalidate(getId());
+    }
+
     public ReviewCycleContentTypeMap getReviewCycleMap() {
 
         if (!(getOriginalObject() instanceof Record)) {
@@ -197,26 +235,20 @@ public class ReviewCycleContentModification extends Modification<HasReviewCycle>
         } else {
 
             Site site = getOriginalObject().as(Site.ObjectModification.class).getOwner();
-            if (site != null) {
+            ReviewCycleSettingsSnapshot snapshot = ReviewCycleSettingsSnapshot.get(site);
 
-                ReviewCycleSettings settings = SiteSettings.get(site, s -> s.as(ReviewCycleSiteSettings.class).getSettings());
-
-                if (settings != null) {
+            return snapshot != null ? snapshot.getContentTypeMap(originalObjectType.getId()) : null;
+        }
+    }
 
-                    List<ReviewCycleContentTypeMap> mapsList = SiteSettings.get(
-                            site,
-                            s -> settings.getContentTypeMaps());
+    private static final class NextReviewDateMemo {
 
-                    return mapsList.stream()
-                            .filter(map -> map.getContentType().equals(originalObjectType))
-                            .findFirst().orElse(null);
-                } else {
+        private final List<Object> key;
+        private final Date value;
 
-                    return null;
-                }
-            }
+        private NextReviewDateMemo(List<Object> key, Date value) {
+            this.key = key;
+            this.value = value;
         }
-
-        return null;
     }
 }
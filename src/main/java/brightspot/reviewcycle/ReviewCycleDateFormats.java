@@ -0,0 +1,63 @@
+package brightspot.reviewcycle;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formats review cycle dates with immutable {@link DateTimeFormatter}s, cached per pattern, locale and zone, so
+ * that they can be shared by concurrent requests and tasks without synchronization.
+ */
+public final class ReviewCycleDateFormats {
+
+    /**
+     * Pattern of due dates in notes and notifications, for example {@code Thu, Nov 18, 2021}.
+     */
+    public static final String DUE_DATE_PATTERN = "EEE, MMM dd, yyyy";
+
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    private ReviewCycleDateFormats() {
+    }
+
+    /**
+     * Returns the formatter of the given pattern, locale and zone.
+     *
+     * @param pattern {@link DateTimeFormatter} pattern.
+     * @param locale locale of the formatted text.
+     * @param zone zone the dates are formatted in.
+     * @return never {@code null}.
+     */
+    public static DateTimeFormatter getFormatter(String pattern, Locale locale, ZoneId zone) {
+        return FORMATTERS.computeIfAbsent(
+                pattern + "|" + locale.toLanguageTag() + "|" + zone.getId(),
+                key -> DateTimeFormatter.ofPattern(pattern, locale).withZone(zone));
+    }
+
+    /**
+     * Formats the given date with the given pattern, locale and zone.
+     *
+     * @param date nullable date to format.
+     * @param pattern {@link DateTimeFormatter} pattern.
+     * @param locale locale of the formatted text.
+     * @param zone zone the date is formatted in.
+     * @return {@code null} if the date is {@code null}.
+     */
+    public static String format(Date date, String pattern, Locale locale, ZoneId zone) {
+        return date != null ? getFormatter(pattern, locale, zone).format(date.toInstant()) : null;
+    }
+
+    /**
+     * Formats the given due date in UTC, which the due dates are truncated to, in the default format locale.
+     *
+     * @param date nullable due date.
+     * @return {@code null} if the date is {@code null}.
+     */
+    public static String formatDueDate(Date date) {
+        return format(date, DUE_DATE_PATTERN, Locale.getDefault(Locale.Category.FORMAT), ZoneOffset.UTC);
+    }
+}
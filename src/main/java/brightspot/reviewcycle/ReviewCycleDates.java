@@ -0,0 +1,110 @@
+package brightspot.reviewcycle;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Review cycle date arithmetic on primitive UTC epoch days and epoch milliseconds, shared by
+ * {@link ReviewCycleDurationForContent} and {@link brightspot.reviewcycle.notification.ReviewCycleDueWarningDuration}.
+ * Adding months behaves like {@link java.time.ZonedDateTime#plusMonths(long)} in UTC: the day of the month is kept,
+ * or clamped to the last day of a shorter month. No date objects are created.
+ */
+public final class ReviewCycleDates {
+
+    public static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
+    private ReviewCycleDates() {
+    }
+
+    /**
+     * Adds the given amount of days, weeks or months to the given UTC epoch day.
+     *
+     * @param epochDay UTC epoch day to add to.
+     * @param calendarField unit of the amount.
+     * @param count amount to add, negative to subtract.
+     * @return UTC epoch day.
+     */
+    public static long addDays(long epochDay, CalendarField calendarField, int count) {
+        int type = calendarField.getType();
+
+        if (type == Calendar.DAY_OF_MONTH) {
+            return epochDay + count;
+
+        } else if (type == Calendar.WEEK_OF_MONTH) {
+            return epochDay + 7L * count;
+
+        } else {
+            return plusMonths(epochDay, count);
+        }
+    }
+
+    /**
+     * Adds the given amount of days, weeks or months to the given time, keeping its UTC time of day.
+     *
+     * @param epochMillis time to add to.
+     * @param calendarField unit of the amount.
+     * @param count amount to add, negative to subtract.
+     * @return epoch milliseconds.
+     */
+    public static long addMillis(long epochMillis, CalendarField calendarField, int count) {
+        return addDays(toEpochDay(epochMillis), calendarField, count) * MILLIS_PER_DAY
+                + Math.floorMod(epochMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Adds the given amount of days, weeks or months to the given date, keeping its UTC time of day.
+     *
+     * @param date nullable date to add to, now if {@code null}.
+     * @param calendarField unit of the amount.
+     * @param count amount to add, negative to subtract.
+     * @return never {@code null}.
+     */
+    public static Date add(Date date, CalendarField calendarField, int count) {
+        long epochMillis = date != null ? date.getTime() : System.currentTimeMillis();
+        return new Date(addMillis(epochMillis, calendarField, count));
+    }
+
+    public static long toEpochDay(long epochMillis) {
+        return Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+    }
+
+    public static long toEpochMillis(long epochDay) {
+        return epochDay * MILLIS_PER_DAY;
+    }
+
+    // Civil calendar conversions based on the proleptic Gregorian algorithms by Howard Hinnant.
+    private static long plusMonths(long epochDay, int months) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        long totalMonths = year * 12 + (month - 1) + months;
+        long newYear = Math.floorDiv(totalMonths, 12);
+        long newMonth = Math.floorMod(totalMonths, 12) + 1;
+
+        return toEpochDay(newYear, newMonth, Math.min(day, lengthOfMonth(newYear, newMonth)));
+    }
+
+    private static long toEpochDay(long year, long month, long day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static long lengthOfMonth(long year, long month) {
+        if (month == 2) {
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+}
@@ -79,12 +79,10 @@ public class ReviewCycleDueBanner extends ContentEditWidget {
             return true;
         }
 
-        return Optional.ofNullable(WebRequest.getCurrent()
+        return Optional.ofNullable(ReviewCycleSettingsSnapshot.get(WebRequest.getCurrent()
                 .as(ToolRequest.class)
-                .getCurrentSite())
-            .map(site -> site.as(ReviewCycleSiteSettings.class))
-            .map(ReviewCycleSiteSettings::getSettings)
-            .map(ReviewCycleSettings::getReviewCycleDueWarningDuration)
+                .getCurrentSite()))
+            .map(ReviewCycleSettingsSnapshot::getBannerWarningDuration)
             .map(dueWarningDuration -> PredicateParser.Static.evaluate(
                 content,
                 ReviewCycleDueWarningDuration.getBannerDueWarningPredicate(now, dueWarningDuration)))
@@ -120,12 +118,10 @@ public class ReviewCycleDueBanner extends ContentEditWidget {
             if (PredicateParser.Static.evaluate(reviewCycleContent, map.getExpiredPredicate(now))) {
                 this.writeBanner(reviewCycleContent, page, true);
             } else {
-                boolean showReviewDueWarning = Optional.ofNullable(WebRequest.getCurrent()
+                boolean showReviewDueWarning = Optional.ofNullable(ReviewCycleSettingsSnapshot.get(WebRequest.getCurrent()
                         .as(ToolRequest.class)
-                        .getCurrentSite())
-                    .map(site -> site.as(ReviewCycleSiteSettings.class))
-                    .map(ReviewCycleSiteSettings::getSettings)
-                    .map(ReviewCycleSettings::getReviewCycleDueWarningDuration)
+                        .getCurrentSite()))
+                    .map(ReviewCycleSettingsSnapshot::getBannerWarningDuration)
                     .map(dueWarningDuration -> PredicateParser.Static.evaluate(
                         content,
                         ReviewCycleDueWarningDuration.getBannerDueWarningPredicate(now, dueWarningDuration)))
@@ -1,8 +1,5 @@
 package brightspot.reviewcycle;
 
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.Calendar;
 import java.util.Date;
 
 import com.google.common.collect.ImmutableMap;
@@ -33,44 +30,11 @@ public class ReviewCycleDurationForContent extends Record {
     }
 
     public Date subtractCycleDuration(Date now) {
-        ZonedDateTime lastDueZoned;
-
-        if (now == null) {
-            lastDueZoned = ZonedDateTime.now(ZoneId.of("UTC"));
-        } else {
-            lastDueZoned = ZonedDateTime.ofInstant(now.toInstant(),
-                    ZoneId.of("UTC"));
-        }
-
-        if (this.getCalendarField().getType() == Calendar.DAY_OF_MONTH) {
-            lastDueZoned = lastDueZoned.minusDays(calendarFieldCount);
-        } else if (this.getCalendarField().getType() == Calendar.WEEK_OF_MONTH) {
-            lastDueZoned = lastDueZoned.minusWeeks(calendarFieldCount);
-        } else {
-            lastDueZoned = lastDueZoned.minusMonths(calendarFieldCount);
-        }
-
-        return Date.from(lastDueZoned.toInstant());
+        return ReviewCycleDates.add(now, getCalendarField(), -calendarFieldCount);
     }
 
     public Date addCycleDuration(Date lastDue) {
-        ZonedDateTime lastDueZoned;
-        if (lastDue == null) {
-            lastDueZoned = ZonedDateTime.now(ZoneId.of("UTC"));
-        } else {
-            lastDueZoned = ZonedDateTime.ofInstant(lastDue.toInstant(),
-                    ZoneId.of("UTC"));
-        }
-
-        if (this.getCalendarField().getType() == Calendar.DAY_OF_MONTH) {
-            lastDueZoned = lastDueZoned.plusDays(calendarFieldCount);
-        } else if (this.getCalendarField().getType() == Calendar.WEEK_OF_MONTH) {
-            lastDueZoned = lastDueZoned.plusWeeks(calendarFieldCount);
-        } else {
-            lastDueZoned = lastDueZoned.plusMonths(calendarFieldCount);
-        }
-
-        return Date.from(lastDueZoned.toInstant());
+        return ReviewCycleDates.add(lastDue, getCalendarField(), calendarFieldCount);
     }
 
     @Override
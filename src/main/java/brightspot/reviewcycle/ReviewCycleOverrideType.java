@@ -1,10 +1,6 @@
 package brightspot.reviewcycle;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import com.psddev.cms.db.Site;
-import com.psddev.cms.db.SiteSettings;
 import com.psddev.cms.db.ToolUi;
 import com.psddev.cms.ui.ToolRequest;
 import com.psddev.cms.ui.form.DynamicType;
@@ -26,11 +22,11 @@ public class ReviewCycleOverrideType implements DynamicType {
 
         Site site = WebRequest.getCurrent().as(ToolRequest.class).getCurrentSite();
 
-        // Get content type maps lists from sites & settings
-        ReviewCycleSettings settings = SiteSettings.get(site, s -> s.as(ReviewCycleSiteSettings.class).getSettings());
+        // Get content type maps from sites & settings
+        ReviewCycleSettingsSnapshot snapshot = ReviewCycleSettingsSnapshot.get(site);
 
         // If settings is disabled, we hide review cycle overrides fields from ALL content types
-        if (settings == null) {
+        if (snapshot == null) {
             type.getFields().stream()
                     .filter(objectField -> objectField.getInternalName()
                             .startsWith(ReviewCycleContentModification.FIELD_PREFIX))
@@ -39,19 +35,8 @@ public class ReviewCycleOverrideType implements DynamicType {
         // Else, we hide SPECIFIC overrides fields
         } else {
 
-            List<ReviewCycleContentTypeMap> mapsList = SiteSettings.get(
-                    site,
-                    s -> settings.getContentTypeMaps());
-
-            // Get the content type maps into a list of object types
-            List<ObjectType> reviewCycleContentTypeMapObjectList
-                    = mapsList
-                    .stream()
-                    .map(ReviewCycleContentTypeMap::getContentType)
-                    .collect(Collectors.toList());
-
             // If true, then we know that sites & settings content type map list does not have the object configured
-            if (!reviewCycleContentTypeMapObjectList.contains(type)) {
+            if (!snapshot.hasContentType(type)) {
                 type.getFields().stream()
                         .filter(objectField -> objectField.getInternalName()
                                 .startsWith(ReviewCycleContentModification.FIELD_PREFIX))
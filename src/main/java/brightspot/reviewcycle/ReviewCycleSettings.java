@@ -9,6 +9,7 @@ import brightspot.reviewcycle.notification.ReviewCycleDueWarningDuration;
 import com.psddev.cms.db.Site;
 import com.psddev.cms.db.ToolUi;
 import com.psddev.cms.ui.form.Note;
+import com.psddev.cms.ui.form.Placeholder;
 import com.psddev.dari.db.ObjectType;
 import com.psddev.dari.db.Record;
 import com.psddev.dari.db.Recordable;
@@ -43,6 +44,24 @@ public class ReviewCycleSettings extends Record {
     @Note("Notifications will be sent out daily to content past due and due in specific days, weeks, or months.")
     private List<ReviewCycleDueWarningDuration> notificationWarningTimes;
 
+    @ToolUi.Cluster("Notification Settings")
+    @DisplayName("Notification Interval")
+    @Placeholder("Every minute")
+    @Note("How often this site is checked for content that is due or has a warning.")
+    private NotificationInterval notificationInterval;
+
+    @ToolUi.Cluster("Notification Settings")
+    @DisplayName("Send Daily Digest")
+    @Note("Sends each watcher one notification per day listing all of their due content, instead of one notification per content.")
+    private boolean sendDailyDigest;
+
+    @ToolUi.Cluster("Notification Settings")
+    @DisplayName("Notification Retention Days")
+    @Minimum(1)
+    @Placeholder("Global setting")
+    @Note("Number of days after which this site's review cycle notifications are removed. Overrides the global retention in the CMS settings.")
+    private Integer notificationRetentionDays;
+
     @ToolUi.Hidden
     private Site owner;
 
@@ -76,6 +95,30 @@ public class ReviewCycleSettings extends Record {
         this.notificationWarningTimes = notificationWarningTimes;
     }
 
+    public NotificationInterval getNotificationInterval() {
+        return notificationInterval != null ? notificationInterval : NotificationInterval.MINUTE;
+    }
+
+    public void setNotificationInterval(NotificationInterval notificationInterval) {
+        this.notificationInterval = notificationInterval;
+    }
+
+    public boolean isSendDailyDigest() {
+        return sendDailyDigest;
+    }
+
+    public void setSendDailyDigest(boolean sendDailyDigest) {
+        this.sendDailyDigest = sendDailyDigest;
+    }
+
+    public Integer getNotificationRetentionDays() {
+        return notificationRetentionDays;
+    }
+
+    public void setNotificationRetentionDays(Integer notificationRetentionDays) {
+        this.notificationRetentionDays = notificationRetentionDays;
+    }
+
     public Site getOwner() {
         return owner;
     }
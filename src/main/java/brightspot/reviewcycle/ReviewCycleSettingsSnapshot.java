@@ -0,0 +1,176 @@
+package brightspot.reviewcycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import brightspot.reviewcycle.notification.ReviewCycleDueWarningDuration;
+import com.psddev.cms.db.Site;
+import com.psddev.cms.db.SiteSettings;
+import com.psddev.dari.db.ObjectType;
+import com.psddev.dari.db.Query;
+
+/**
+ * Read-only view of the {@link ReviewCycleSettings} of a site, compiled once per
+ * {@link ReviewCycleSiteSettings#getSettingsVersion() settings version} so that looking up the content type map of a
+ * type doesn't have to read and scan the settings every time. Snapshots are cached per site, rebuilt when the settings
+ * version changes and dropped when the site is saved on this node.
+ */
+public final class ReviewCycleSettingsSnapshot {
+
+    private static final Map<UUID, ReviewCycleSettingsSnapshot> CACHE = new ConcurrentHashMap<>();
+
+    private static final long TIGHTEST_INTERVAL_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static volatile NotificationInterval tightestInterval;
+
+    private static volatile long tightestIntervalExpiresAt;
+
+    private final long version;
+    private final boolean enabled;
+    private final Map<UUID, ReviewCycleContentTypeMap> contentTypeMaps;
+    private final List<ReviewCycleDueWarningDuration> notificationWarningTimes;
+    private final ReviewCycleDueWarningDuration bannerWarningDuration;
+    private final NotificationInterval notificationInterval;
+    private final boolean sendDailyDigest;
+    private final Integer notificationRetentionDays;
+
+    private ReviewCycleSettingsSnapshot(long version, ReviewCycleSettings settings) {
+        this.version = version;
+        this.enabled = settings != null;
+
+        Map<UUID, ReviewCycleContentTypeMap> maps = new LinkedHashMap<>();
+
+        if (settings != null) {
+            for (ReviewCycleContentTypeMap map : settings.getContentTypeMaps()) {
+                if (map.getContentType() != null) {
+                    maps.putIfAbsent(map.getContentType().getId(), map);
+                }
+            }
+        }
+
+        this.contentTypeMaps = Collections.unmodifiableMap(maps);
+        this.notificationWarningTimes = settings != null
+                ? Collections.unmodifiableList(new ArrayList<>(settings.getNotificationWarningTimes()))
+                : Collections.emptyList();
+        this.bannerWarningDuration = settings != null ? settings.getReviewCycleDueWarningDuration() : null;
+        this.notificationInterval = settings != null ? settings.getNotificationInterval() : NotificationInterval.MINUTE;
+        this.sendDailyDigest = settings != null && settings.isSendDailyDigest();
+        this.notificationRetentionDays = settings != null ? settings.getNotificationRetentionDays() : null;
+    }
+
+    /**
+     * Returns the snapshot of the given site's review cycle settings.
+     *
+     * @param site nullable site.
+     * @return {@code null} if the site is {@code null} or review cycles are disabled for it.
+     */
+    public static ReviewCycleSettingsSnapshot get(Site site) {
+
+        if (site == null) {
+            return null;
+        }
+
+        Long version = SiteSettings.get(site, s -> s.as(ReviewCycleSiteSettings.class).getSettingsVersion());
+        ReviewCycleSettingsSnapshot snapshot = CACHE.get(site.getId());
+
+        if (snapshot == null || version == null || snapshot.version != version) {
+            snapshot = new ReviewCycleSettingsSnapshot(
+                    version != null ? version : 0L,
+                    SiteSettings.get(site, s -> s.as(ReviewCycleSiteSettings.class).getSettings()));
+            CACHE.put(site.getId(), snapshot);
+        }
+
+        return snapshot.enabled ? snapshot : null;
+    }
+
+    /**
+     * Returns the shortest notification interval among the sites that have review cycle settings enabled. The result
+     * is cached for a few minutes, so that schedulers don't have to load every site on every tick.
+     *
+     * @return never {@code null}.
+     */
+    public static NotificationInterval getTightestInterval() {
+        NotificationInterval interval = tightestInterval;
+
+        if (interval == null || System.currentTimeMillis() > tightestIntervalExpiresAt) {
+            interval = Query.from(Site.class).selectAll().stream()
+                    .map(ReviewCycleSettingsSnapshot::get)
+                    .filter(Objects::nonNull)
+                    .map(ReviewCycleSettingsSnapshot::getNotificationInterval)
+                    .min(Comparator.comparingLong(NotificationInterval::getMillis))
+                    .orElse(NotificationInterval.MINUTE);
+
+            tightestInterval = interval;
+            tightestIntervalExpiresAt = System.currentTimeMillis() + TIGHTEST_INTERVAL_TTL_MILLIS;
+        }
+
+        return interval;
+    }
+
+    /**
+     * Drops the cached snapshot of the given site, so that the next {@link #get(Site)} compiles it again.
+     *
+     * @param siteId nullable site ID.
+     */
+    public static void invalidate(UUID siteId) {
+        if (siteId != null) {
+            CACHE.remove(siteId);
+        }
+        tightestInterval = null;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param typeId nullable type ID.
+     * @return {@code null} if the type isn't configured for review cycles.
+     */
+    public ReviewCycleContentTypeMap getContentTypeMap(UUID typeId) {
+        return typeId != null ? contentTypeMaps.get(typeId) : null;
+    }
+
+    /**
+     * @param type nullable type.
+     * @return {@code true} if the type is configured for review cycles.
+     */
+    public boolean hasContentType(ObjectType type) {
+        return type != null && contentTypeMaps.containsKey(type.getId());
+    }
+
+    /**
+     * @return content type maps in the order they are configured, without duplicate types.
+     */
+    public List<ReviewCycleContentTypeMap> getContentTypeMaps() {
+        return new ArrayList<>(contentTypeMaps.values());
+    }
+
+    public List<ReviewCycleDueWarningDuration> getNotificationWarningTimes() {
+        return notificationWarningTimes;
+    }
+
+    public ReviewCycleDueWarningDuration getBannerWarningDuration() {
+        return bannerWarningDuration;
+    }
+
+    public NotificationInterval getNotificationInterval() {
+        return notificationInterval;
+    }
+
+    public boolean isSendDailyDigest() {
+        return sendDailyDigest;
+    }
+
+    public Integer getNotificationRetentionDays() {
+        return notificationRetentionDays;
+    }
+}
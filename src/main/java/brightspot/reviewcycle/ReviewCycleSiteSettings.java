@@ -1,5 +1,14 @@
 package brightspot.reviewcycle;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import brightspot.reviewcycle.task.ReviewCycleRecomputeTask;
 import com.psddev.cms.db.Site;
 import com.psddev.cms.db.ToolUi;
 import com.psddev.cms.db.ToolUser;
@@ -31,11 +40,16 @@ public class ReviewCycleSiteSettings extends Modification<Site> {
 
     private transient boolean shouldReindex;
 
+    private transient Set<UUID> changedTypeIds;
+
     @ToolUi.Tab(TAB)
     @ToolUi.Cluster(CLUSTER)
     @Placeholder("Disabled")
     private ReviewCycleSettings settings;
 
+    @ToolUi.Hidden
+    private Long settingsVersion;
+
     public ReviewCycleSettings getSettings() {
         return settings;
     }
@@ -44,6 +58,14 @@ public class ReviewCycleSiteSettings extends Modification<Site> {
         this.settings = settings;
     }
 
+    /**
+     * @return version of the settings that changes every time the site is saved, so that values derived from the
+     *     settings can tell whether they are out of date.
+     */
+    public long getSettingsVersion() {
+        return settingsVersion != null ? settingsVersion : 0L;
+    }
+
     @Override
     protected void beforeCommit() {
         super.beforeCommit();
@@ -78,9 +100,40 @@ public class ReviewCycleSiteSettings extends Modification<Site> {
             }
             LOGGER.info(info);
             shouldReindex = true;
+            changedTypeIds = getChangedTypeIds(databaseSettings.getSettings(), getSettings());
         }
     }
 
+    /**
+     * Returns the IDs of the types that were added, removed or given a different cycle duration.
+     */
+    private static Set<UUID> getChangedTypeIds(ReviewCycleSettings oldSettings, ReviewCycleSettings newSettings) {
+        Map<UUID, Object> oldDurations = getCycleDurations(oldSettings);
+        Map<UUID, Object> newDurations = getCycleDurations(newSettings);
+        Set<UUID> typeIds = new HashSet<>(oldDurations.keySet());
+        typeIds.addAll(newDurations.keySet());
+        typeIds.removeIf(typeId -> Objects.equals(oldDurations.get(typeId), newDurations.get(typeId)));
+        return typeIds;
+    }
+
+    private static Map<UUID, Object> getCycleDurations(ReviewCycleSettings settings) {
+        Map<UUID, Object> durations = new HashMap<>();
+
+        if (settings != null) {
+            for (ReviewCycleContentTypeMap map : settings.getContentTypeMaps()) {
+                if (map.getContentType() != null && map.getCycleDuration() != null) {
+                    durations.put(
+                        map.getContentType().getId(),
+                        Arrays.asList(
+                            map.getCycleDuration().getCalendarField(),
+                            map.getCycleDuration().getCalendarFieldCount()));
+                }
+            }
+        }
+
+        return durations;
+    }
+
     @Override
     protected void beforeSave() {
         super.beforeSave();
@@ -90,5 +143,22 @@ public class ReviewCycleSiteSettings extends Modification<Site> {
         if (settings != null && settings.getOwner() == null) {
             settings.setOwner(getOriginalObject());
         }
+
+        settingsVersion = System.currentTimeMillis();
+    }
+
+    @Override
+    protected void afterSave() {
+        super.afterSave();
+        ReviewCycleSettingsSnapshot.invalidate(getOriginalObject().getId());
+
+        // Bring the stored next review dates of the changed types in line with the new settings
+        if (shouldReindex) {
+            shouldReindex = false;
+
+            if (changedTypeIds != null && !changedTypeIds.isEmpty()) {
+                new ReviewCycleRecomputeTask(getOriginalObject(), changedTypeIds).submit();
+            }
+        }
     }
 }
@@ -20,6 +20,11 @@ import com.psddev.dari.web.WebRequest;
 import org.apache.commons.lang3.StringUtils;
 
 public final class ReviewCycleUtils {
+
+    private static final String DRAFT_FIELD = "cms.content.draft";
+    private static final String TRASHED_FIELD = "cms.content.trashed";
+    private static final String WORKFLOW_STATE_FIELD = "cms.workflow.currentState";
+
     private ReviewCycleUtils() {
 
     }
@@ -30,35 +35,40 @@ public final class ReviewCycleUtils {
 
         State state = State.getInstance(object);
 
-        Object existingObject = Query.fromAll().where("id = ?", state.getId()).noCache().first();
+        /*
+         * This Object can't be about to be published if:
+         * - It is in draft
+         * - OR it is trashed
+         * - OR it is in workflow
+         * These are checked first, since they don't need the database object.
+         */
 
-        State existingState = State.getInstance(existingObject);
+        if (state.as(Content.ObjectModification.class).isDraft()
+            || state.as(Content.ObjectModification.class).isTrash()
+            || state.as(Workflow.Data.class).getCurrentState() != null) {
+            return false;
+        }
 
         /*
-         * This Object is already published if:
+         * The database is checked even if the state is new, since a new state can have an ID assigned up front, such
+         * as by an import, that already exists in the database.
+         *
+         * This Object is about to be published for the first time if it is not already published, which it is if:
          * - It already exists in the database
          * - AND the database object is not in draft
          * - AND the database object is not trashed
          * - AND the database object is not in workflow
+         * The draft, trash and workflow flags are all indexed (as visibility fields), so this is an existence check
+         * on the index instead of a load of the database object.
          */
 
-        boolean isAlreadyPublished = existingObject != null
-            && !existingState.as(Content.ObjectModification.class).isDraft()
-            && !existingState.as(Content.ObjectModification.class).isTrash()
-            && existingState.as(Workflow.Data.class).getCurrentState() == null;
-
-        /*
-         * This Object is about to be published for the first time if:
-         * - Object is not already published (above)
-         * - AND it is not in draft
-         * - AND it is not trashed
-         * - AND it is not in workflow
-         */
-
-        return !isAlreadyPublished
-            && !state.as(Content.ObjectModification.class).isDraft()
-            && !state.as(Content.ObjectModification.class).isTrash()
-            && state.as(Workflow.Data.class).getCurrentState() == null;
+        return !Query.fromAll()
+            .where("_id = ?", state.getId())
+            .and(DRAFT_FIELD + " != ?", Boolean.TRUE)
+            .and(TRASHED_FIELD + " != ?", Boolean.TRUE)
+            .and(WORKFLOW_STATE_FIELD + " = missing")
+            .noCache()
+            .hasMoreThan(0);
     }
 
     static <T> T resolve(T object) {
@@ -0,0 +1,68 @@
+package brightspot.reviewcycle.notification;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.psddev.dari.db.Record;
+import com.psddev.dari.db.Recordable;
+
+/**
+ * A single due content entry in a daily digest {@link ReviewCycleNotificationBundle}.
+ */
+@Recordable.Embedded
+public class ReviewCycleDigestItem extends Record {
+
+    private UUID contentId;
+
+    private String contentLabel;
+
+    private Long dueDay;
+
+    public ReviewCycleDigestItem() {
+    }
+
+    public ReviewCycleDigestItem(UUID contentId, String contentLabel, Date dueDate) {
+        this.contentId = contentId;
+        this.contentLabel = contentLabel;
+        setDueDate(dueDate);
+    }
+
+    public UUID getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(UUID contentId) {
+        this.contentId = contentId;
+    }
+
+    public String getContentLabel() {
+        return contentLabel;
+    }
+
+    public void setContentLabel(String contentLabel) {
+        this.contentLabel = contentLabel;
+    }
+
+    /**
+     * @return the due date at the start of its UTC day.
+     */
+    public Date getDueDate() {
+        return dueDay != null ? new Date(TimeUnit.DAYS.toMillis(dueDay)) : null;
+    }
+
+    public void setDueDate(Date dueDate) {
+        this.dueDay = dueDate != null ? Math.floorDiv(dueDate.getTime(), TimeUnit.DAYS.toMillis(1)) : null;
+    }
+
+    /**
+     * @return UTC epoch day of the due date.
+     */
+    public Long getDueDay() {
+        return dueDay;
+    }
+
+    public void setDueDay(Long dueDay) {
+        this.dueDay = dueDay;
+    }
+}
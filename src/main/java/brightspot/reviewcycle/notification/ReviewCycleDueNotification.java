@@ -1,10 +1,13 @@
 package brightspot.reviewcycle.notification;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import com.psddev.cms.db.Content;
-import com.psddev.cms.watch.WatcherObjectModification;
+import com.psddev.cms.db.ToolUser;
 import com.psddev.dari.db.Query;
 import com.psddev.dari.notification.Notification;
 import com.psddev.dari.notification.Subscriber;
@@ -16,6 +19,14 @@ public class ReviewCycleDueNotification extends Notification<ReviewCycleDueSubsc
 
     private ReviewCycleNotificationBundle bundle;
 
+    private UUID recipientId;
+
+    @Indexed
+    private String digestKey;
+
+    @Indexed
+    private Boolean ownerUnresolved;
+
     public ReviewCycleNotificationBundle getBundle() {
         return bundle;
     }
@@ -24,6 +35,30 @@ public class ReviewCycleDueNotification extends Notification<ReviewCycleDueSubsc
         this.bundle = bundle;
     }
 
+    public UUID getRecipientId() {
+        return recipientId;
+    }
+
+    public void setRecipientId(UUID recipientId) {
+        this.recipientId = recipientId;
+    }
+
+    public String getDigestKey() {
+        return digestKey;
+    }
+
+    public void setDigestKey(String digestKey) {
+        this.digestKey = digestKey;
+    }
+
+    /**
+     * @return {@code true} if the notification was written before the owner was stored, and its owner couldn't be
+     *     resolved when it was migrated, such as because the content no longer exists.
+     */
+    public boolean isOwnerUnresolved() {
+        return Boolean.TRUE.equals(ownerUnresolved);
+    }
+
     public ReviewCycleDueNotification() {
         super();
     }
@@ -43,18 +78,92 @@ public class ReviewCycleDueNotification extends Notification<ReviewCycleDueSubsc
         return null;
     }
 
+    /**
+     * @return ID of the site owning the content, used to apply its retention policy.
+     */
+    @Indexed
+    public UUID getOwnerId() {
+
+        if (bundle != null) {
+            return bundle.getOwnerId();
+        }
+        return null;
+    }
+
+    public ReviewCycleDueNotification(UUID contentId, String contentLabel, UUID ownerId, String ownerName, Date lastNotified, Date dueDate) {
+        this(new ReviewCycleNotificationBundle(contentId, contentLabel, ownerId, ownerName, lastNotified, dueDate));
+    }
+
+    /**
+     * @deprecated Use {@link #ReviewCycleDueNotification(UUID, String, UUID, String, Date, Date)} instead, which
+     *     doesn't store a reference to the content.
+     */
+    @Deprecated
     public ReviewCycleDueNotification(Content content, String contentLabel, UUID contentId, Date lastNotified, Date dueDate, String ownerName) {
-        super();
-        this.bundle = new ReviewCycleNotificationBundle(content, contentLabel, contentId, lastNotified, dueDate, ownerName);
-        setPayload(bundle);
+        this(contentId, contentLabel, null, ownerName, lastNotified, dueDate);
+    }
+
+    /**
+     * Moves notifications written before the compact bundle format over to it whenever they are saved again.
+     */
+    @Override
+    protected void beforeSave() {
+        super.beforeSave();
+
+        if (bundle != null) {
+            bundle.migrate();
+            ownerUnresolved = bundle.getOwnerId() == null ? Boolean.TRUE : null;
+        }
+    }
+
+    /**
+     * Returns the key identifying the daily digest of a single recipient for a site.
+     *
+     * @param recipientId tool user the digest is sent to.
+     * @param siteId site of the due content.
+     * @param day UTC epoch day of the digest.
+     * @return never {@code null}.
+     */
+    public static String createDigestKey(UUID recipientId, UUID siteId, long day) {
+        return recipientId + "/" + siteId + "/" + day;
+    }
+
+    /**
+     * Returns the ID of the notification of a single content for a day, so that writing it again on the same day
+     * updates the existing notification instead of creating another one.
+     *
+     * @param contentId due content.
+     * @param day UTC epoch day of the notification.
+     * @return never {@code null}.
+     */
+    public static UUID createDailyId(UUID contentId, long day) {
+        return UUID.nameUUIDFromBytes((ReviewCycleDueNotification.class.getName() + "/" + contentId + "/" + day)
+                .getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
     protected Iterable<? extends Subscriber> getSubscribers() {
-        // Return the watchers of this payload
-        return Query
-            .from(Content.class)
-            .where("_id = ?", getPayload().getContentId())
-            .first().as(WatcherObjectModification.class).getWatchers();
+
+        // A daily digest only goes to the watcher it was built for
+        if (recipientId != null) {
+            ToolUser recipient = Query.from(ToolUser.class).where("_id = ?", recipientId).first();
+            return recipient != null ? Collections.singletonList(recipient) : Collections.emptyList();
+        }
+
+        // Return the watchers of this payload, preferably as cached when the task loaded the content
+        List<UUID> watcherIds = ReviewCycleWatcherCache.getIfPresent(getPayload().getContentId());
+
+        if (watcherIds == null) {
+            Content content = Query
+                .from(Content.class)
+                .where("_id = ?", getPayload().getContentId())
+                .first();
+
+            watcherIds = content != null ? ReviewCycleWatcherCache.resolve(content) : Collections.emptyList();
+        }
+
+        return watcherIds.isEmpty()
+            ? Collections.emptyList()
+            : Query.from(ToolUser.class).where("_id = ?", watcherIds).selectAll();
     }
 }
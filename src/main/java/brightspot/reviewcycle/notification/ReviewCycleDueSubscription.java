@@ -1,10 +1,8 @@
 package brightspot.reviewcycle.notification;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.TimeZone;
 
+import brightspot.reviewcycle.ReviewCycleDateFormats;
 import brightspot.reviewcycle.ReviewCycleUtils;
 import com.google.common.collect.ImmutableMap;
 import com.psddev.cms.notification.ToolSubscription;
@@ -22,19 +20,20 @@ import com.psddev.dari.notification.Subscriber;
 public class ReviewCycleDueSubscription extends ToolSubscription<ReviewCycleNotificationBundle>
     implements ToolUserOnlySubscription {
 
-    private static final DateFormat FORMAT = new SimpleDateFormat("EEE, MMM dd, yyyy");
-
     // Example:
     // REVIEW DUE: The following content in [Site name param] is due for content review on [Review date param] (MM/DD/YYYY): [link to asset]
 
     @Override
     public String toHtmlFormat(Subscriber subscriber, ReviewCycleNotificationBundle payload) {
 
+        if (payload != null && payload.getOwnerName() != null && !payload.getDigestItems().isEmpty()) {
+            return toDigestHtmlFormat(payload);
+        }
+
         if (payload != null && payload.getOwnerName() != null && payload.getContentId() != null
             && payload.getContentLabel() != null && payload.getDueDate() != null) {
 
-            FORMAT.setTimeZone(TimeZone.getTimeZone("UTC"));
-            String formattedDueDateUTC = FORMAT.format(payload.getDueDate());
+            String formattedDueDateUTC = ReviewCycleDateFormats.formatDueDate(payload.getDueDate());
 
             String prefix = "REVIEW DUE: The following content in ";
             String siteName = payload.getOwnerName();
@@ -82,4 +81,56 @@ public class ReviewCycleDueSubscription extends ToolSubscription<ReviewCycleNoti
 
         return super.toHtmlFormat(subscriber, payload);
     }
+
+    // Example:
+    // REVIEW DUE: The following content in [Site name param] is due for content review:
+    // - [link to asset] ([Review date param])
+
+    private String toDigestHtmlFormat(ReviewCycleNotificationBundle payload) {
+
+        String defaultText = "REVIEW DUE: The following content in " + payload.getOwnerName()
+            + " is due for content review: ";
+
+        String localized = ToolLocalization.text(
+                new LocalizationContext(
+                        ReviewCycleDueSubscription.class,
+                        ImmutableMap.of(
+                                "siteName", payload.getOwnerName(),
+                                "count", payload.getDigestItems().size()
+                        )
+                ),
+                "label.reviewDueDigest",
+                defaultText);
+
+        StringBuilder html = new StringBuilder(Nodes.P.with(localized).toString());
+
+        html.append("<ul>");
+
+        for (ReviewCycleDigestItem item : payload.getDigestItems()) {
+            if (item.getContentId() == null || item.getContentLabel() == null) {
+                continue;
+            }
+
+            String redirectUrl = ReviewCycleUtils.fullyQualifiedCmsUrlBuilder("/content/edit.jsp")
+                .addParameter("id", item.getContentId())
+                .build();
+
+            String dateString = "";
+
+            if (item.getDueDate() != null) {
+                dateString = " (" + ReviewCycleDateFormats.formatDueDate(item.getDueDate()) + ")";
+            }
+
+            html.append(Nodes.LI
+                .with(Nodes.A
+                    .href(redirectUrl)
+                    .target("_blank")
+                    .with(item.getContentLabel()))
+                .with(dateString));
+        }
+
+        html.append("</ul>");
+
+        return html.toString();
+    }
 }
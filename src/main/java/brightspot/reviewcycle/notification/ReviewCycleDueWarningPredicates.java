@@ -0,0 +1,126 @@
+package brightspot.reviewcycle.notification;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import brightspot.reviewcycle.ReviewCycleContentModification;
+import brightspot.reviewcycle.ReviewCycleDates;
+import com.psddev.dari.db.CompoundPredicate;
+import com.psddev.dari.db.Predicate;
+import com.psddev.dari.db.PredicateParser;
+
+/**
+ * Compiles notification warning times into the smallest set of {@code nextReviewDate} clauses: consecutive warning
+ * days become a single range and the remaining days a single list match. Compiled predicates are cached per warning
+ * times and day, so they are only built once per day no matter how many sites and content types share them.
+ */
+final class ReviewCycleDueWarningPredicates {
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final Map<String, Predicate> CACHE = new ConcurrentHashMap<>();
+
+    private static volatile long cachedNow = Long.MIN_VALUE;
+
+    private ReviewCycleDueWarningPredicates() {
+    }
+
+    static Predicate compile(Date now, List<ReviewCycleDueWarningDuration> dueWarningDurations) {
+
+        if (dueWarningDurations == null || dueWarningDurations.isEmpty()) {
+            return null;
+        }
+
+        long nowMillis = now.getTime();
+
+        // Predicates from previous days are never used again
+        if (cachedNow != nowMillis) {
+            synchronized (CACHE) {
+                if (cachedNow != nowMillis) {
+                    CACHE.clear();
+                    cachedNow = nowMillis;
+                }
+            }
+        }
+
+        String key = nowMillis + "|" + dueWarningDurations.stream()
+                .map(duration -> duration.getCalendarField() + ":" + duration.getCalendarFieldCount())
+                .collect(Collectors.joining(","));
+
+        return CACHE.computeIfAbsent(key, k -> doCompile(now, dueWarningDurations));
+    }
+
+    private static Predicate doCompile(Date now, List<ReviewCycleDueWarningDuration> dueWarningDurations) {
+
+        TreeSet<Long> warningTimes = new TreeSet<>();
+
+        for (ReviewCycleDueWarningDuration dueWarningDuration : dueWarningDurations) {
+            warningTimes.add(ReviewCycleDates.addMillis(
+                    now.getTime(),
+                    dueWarningDuration.getCalendarField(),
+                    dueWarningDuration.getCalendarFieldCount()));
+        }
+
+        // Next review dates are truncated to days, so consecutive days can only be merged into ranges when aligned
+        boolean dayAligned = warningTimes.stream().allMatch(time -> time % DAY_MILLIS == 0);
+
+        List<Date> singles = new ArrayList<>();
+        Predicate compound = null;
+
+        Long rangeStart = null;
+        Long rangeEnd = null;
+
+        for (Long time : warningTimes) {
+            if (rangeEnd != null && dayAligned && time - rangeEnd == DAY_MILLIS) {
+                rangeEnd = time;
+                continue;
+            }
+
+            compound = addRange(compound, singles, rangeStart, rangeEnd);
+            rangeStart = time;
+            rangeEnd = time;
+        }
+
+        compound = addRange(compound, singles, rangeStart, rangeEnd);
+
+        if (!singles.isEmpty()) {
+            compound = or(compound, PredicateParser.Static.parse(
+                    ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME + " = ?",
+                    singles));
+        }
+
+        return compound;
+    }
+
+    private static Predicate addRange(Predicate compound, List<Date> singles, Long rangeStart, Long rangeEnd) {
+
+        if (rangeStart == null) {
+            return compound;
+        }
+
+        if (rangeStart.equals(rangeEnd)) {
+            singles.add(new Date(rangeStart));
+            return compound;
+        }
+
+        return or(compound, PredicateParser.Static.parse(
+                ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
+                        + " >= ? and "
+                        + ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
+                        + " < ?",
+                rangeStart,
+                rangeEnd + DAY_MILLIS));
+    }
+
+    private static Predicate or(Predicate compound, Predicate predicate) {
+        return compound == null
+                ? predicate
+                : CompoundPredicate.combine(PredicateParser.OR_OPERATOR, compound, predicate);
+    }
+}
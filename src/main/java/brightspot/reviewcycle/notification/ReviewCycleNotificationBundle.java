@@ -1,27 +1,47 @@
 package brightspot.reviewcycle.notification;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import com.psddev.cms.db.Content;
+import com.psddev.cms.db.Site;
 import com.psddev.dari.db.Record;
 import com.psddev.dari.db.Recordable;
 
+/**
+ * Payload of a {@link ReviewCycleDueNotification}. Only the ID, label and epoch-day due date of the content are
+ * stored, so that refreshing a notification doesn't have to load the content again. Bundles written before the
+ * compact format still hold a {@link #getContent() content} reference and a {@link Date} due date, which are moved
+ * to the compact fields by {@link #migrate()}.
+ */
 @Recordable.Embedded
 public class ReviewCycleNotificationBundle extends Record {
 
     public ReviewCycleNotificationBundle() {
     }
 
-    public ReviewCycleNotificationBundle(Content content, String contentLabel, UUID contentId, Date lastNotified, Date dueDate, String ownerName) {
-        this.content = content;
-        this.contentLabel = contentLabel;
+    public ReviewCycleNotificationBundle(UUID contentId, String contentLabel, UUID ownerId, String ownerName, Date lastNotified, Date dueDate) {
         this.contentId = contentId;
-        this.lastNotified = lastNotified;
-        this.dueDate = dueDate;
+        this.contentLabel = contentLabel;
+        this.ownerId = ownerId;
         this.ownerName = ownerName;
+        this.lastNotified = lastNotified;
+        setDueDate(dueDate);
     }
 
+    /**
+     * @deprecated Use {@link #ReviewCycleNotificationBundle(UUID, String, UUID, String, Date, Date)} instead, which
+     *     doesn't store a reference to the content.
+     */
+    @Deprecated
+    public ReviewCycleNotificationBundle(Content content, String contentLabel, UUID contentId, Date lastNotified, Date dueDate, String ownerName) {
+        this(contentId, contentLabel, null, ownerName, lastNotified, dueDate);
+    }
+
+    @Deprecated
     private Content content;
 
     private String contentLabel;
@@ -30,14 +50,30 @@ public class ReviewCycleNotificationBundle extends Record {
 
     private Date lastNotified;
 
+    @Deprecated
     private Date dueDate;
 
+    private Long dueDay;
+
+    private UUID ownerId;
+
     private String ownerName;
 
+    private List<ReviewCycleDigestItem> digestItems;
+
+    /**
+     * @return content of a bundle written before the compact format, or {@code null}.
+     * @deprecated Use {@link #getContentId()} instead.
+     */
+    @Deprecated
     public Content getContent() {
         return content;
     }
 
+    /**
+     * @deprecated Use {@link #setContentId(UUID)} instead.
+     */
+    @Deprecated
     public void setContent(Content content) {
         this.content = content;
     }
@@ -66,12 +102,39 @@ public class ReviewCycleNotificationBundle extends Record {
         this.lastNotified = lastNotified;
     }
 
+    /**
+     * @return the due date at the start of its UTC day, or the legacy due date for bundles that haven't been
+     *     migrated yet.
+     */
     public Date getDueDate() {
-        return dueDate;
+        return dueDay != null ? new Date(TimeUnit.DAYS.toMillis(dueDay)) : dueDate;
     }
 
     public void setDueDate(Date dueDate) {
-        this.dueDate = dueDate;
+        this.dueDay = dueDate != null ? Math.floorDiv(dueDate.getTime(), TimeUnit.DAYS.toMillis(1)) : null;
+        this.dueDate = null;
+    }
+
+    /**
+     * @return UTC epoch day of the due date.
+     */
+    public Long getDueDay() {
+        return dueDay;
+    }
+
+    public void setDueDay(Long dueDay) {
+        this.dueDay = dueDay;
+    }
+
+    /**
+     * @return ID of the site owning the content.
+     */
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
     }
 
     public String getOwnerName() {
@@ -81,4 +144,49 @@ public class ReviewCycleNotificationBundle extends Record {
     public void setOwnerName(String ownerName) {
         this.ownerName = ownerName;
     }
+
+    /**
+     * @return due content of a daily digest, or an empty list if this bundle is for a single content.
+     */
+    public List<ReviewCycleDigestItem> getDigestItems() {
+        if (digestItems == null) {
+            digestItems = new ArrayList<>();
+        }
+        return digestItems;
+    }
+
+    public void setDigestItems(List<ReviewCycleDigestItem> digestItems) {
+        this.digestItems = digestItems;
+    }
+
+    /**
+     * Moves a bundle written before the compact format to the compact fields, dropping the content reference.
+     */
+    void migrate() {
+
+        if (content != null) {
+            if (contentId == null) {
+                contentId = content.getId();
+            }
+
+            // Older bundles didn't store the owner, which per-site retention matches on
+            if (ownerId == null) {
+                Site owner = content.as(Site.ObjectModification.class).getOwner();
+
+                if (owner != null) {
+                    ownerId = owner.getId();
+                    ownerName = owner.getName();
+                }
+            }
+            content = null;
+        }
+
+        if (dueDate != null) {
+            if (dueDay == null) {
+                setDueDate(dueDate);
+            } else {
+                dueDate = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package brightspot.reviewcycle.notification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.psddev.cms.db.Content;
+import com.psddev.cms.db.ToolUser;
+import com.psddev.cms.watch.WatcherObjectModification;
+
+/**
+ * IDs of the watchers of due content, keyed by content ID. The cache is filled from content that
+ * {@link brightspot.reviewcycle.task.ReviewCycleDueRepeatingTask} has already loaded, so that delivering the
+ * resulting {@link ReviewCycleDueNotification notifications} doesn't have to load each content again. Only the IDs
+ * are kept, and only for about as long as a run takes to be delivered, so that watcher changes are picked up soon.
+ */
+public final class ReviewCycleWatcherCache {
+
+    private static final Cache<UUID, List<UUID>> WATCHER_IDS = CacheBuilder.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
+    private ReviewCycleWatcherCache() {
+    }
+
+    /**
+     * Caches the watchers of all the given, already loaded content.
+     *
+     * @param contents content to cache the watchers of.
+     */
+    public static void prefetch(Collection<? extends Content> contents) {
+        for (Content content : contents) {
+            resolve(content);
+        }
+    }
+
+    /**
+     * Returns the IDs of the watchers of the given, already loaded content and caches them.
+     *
+     * @param content content to return the watchers of.
+     * @return never {@code null}.
+     */
+    public static List<UUID> resolve(Content content) {
+
+        List<UUID> watcherIds = new ArrayList<>();
+
+        for (ToolUser watcher : content.as(WatcherObjectModification.class).getWatchers()) {
+            watcherIds.add(watcher.getId());
+        }
+
+        WATCHER_IDS.put(content.getId(), watcherIds);
+        return watcherIds;
+    }
+
+    /**
+     * @param contentId content to return the watchers of.
+     * @return {@code null} if the watchers of the content are not cached.
+     */
+    public static List<UUID> getIfPresent(UUID contentId) {
+        return contentId != null ? WATCHER_IDS.getIfPresent(contentId) : null;
+    }
+
+    /**
+     * Drops the cached watchers of the given content, such as after its watchers have changed.
+     *
+     * @param contentId nullable content ID.
+     */
+    public static void invalidate(UUID contentId) {
+        if (contentId != null) {
+            WATCHER_IDS.invalidate(contentId);
+        }
+    }
+}
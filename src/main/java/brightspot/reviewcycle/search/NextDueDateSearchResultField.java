@@ -1,7 +1,5 @@
 package brightspot.reviewcycle.search;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Optional;
 
 import brightspot.reviewcycle.HasReviewCycle;
@@ -13,9 +11,6 @@ import com.psddev.dari.db.Record;
 
 public class NextDueDateSearchResultField implements SearchResultField {
 
-    //Thu, Nov 18, 2021, 4:29 PM
-    private static final DateFormat FORMAT = new SimpleDateFormat("EEE, MMM dd, yyyy, hh:mm aa ");
-
     @Override
     public String getDisplayName() {
         return "Next Review Date";
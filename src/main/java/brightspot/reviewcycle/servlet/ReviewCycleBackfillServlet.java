@@ -0,0 +1,113 @@
+package brightspot.reviewcycle.servlet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.servlet.http.HttpServletResponse;
+
+import brightspot.reviewcycle.ReviewCycleContentTypeMap;
+import brightspot.reviewcycle.ReviewCycleSettingsSnapshot;
+import brightspot.reviewcycle.task.ReviewCycleRecomputeTask;
+import com.psddev.cms.db.Site;
+import com.psddev.cms.db.ToolUser;
+import com.psddev.cms.ui.ToolRequest;
+import com.psddev.dari.db.ObjectType;
+import com.psddev.dari.db.Query;
+import com.psddev.dari.web.AbstractWebPage;
+import com.psddev.dari.web.WebRequest;
+import com.psddev.dari.web.annotation.WebPath;
+import com.psddev.dari.web.annotation.WebPathGroup;
+
+import static com.psddev.dari.html.Nodes.*;
+
+/**
+ * This class backfills the next review date of content that doesn't have one indexed, such as content saved before
+ * its type was mapped or before review cycles were installed. A GET only counts the content per site and type (dry run).
+ * A POST with the same parameters also starts a {@link ReviewCycleRecomputeTask} per site that writes the dates with
+ * the given {@code parallelism} and {@code rate} (content written per second).
+ */
+@WebPathGroup("cms")
+@WebPath(ReviewCycleBackfillServlet.PATH)
+public class ReviewCycleBackfillServlet extends AbstractWebPage {
+
+    public static final String PATH = "/review-cycle-backfill-servlet";
+    public static final String SITE_ID_PARAMETER = "siteid";
+    public static final String TYPE_ID_PARAMETER = "typeid";
+    public static final String PARALLELISM_PARAMETER = "parallelism";
+    public static final String RATE_PARAMETER = "rate";
+
+    private static final int DEFAULT_PARALLELISM = 2;
+    private static final double DEFAULT_RATE = 100;
+
+    @Override
+    protected void onGet() throws Exception {
+        backfill(false);
+    }
+
+    @Override
+    protected void onPost() throws Exception {
+        backfill(true);
+    }
+
+    private void backfill(boolean execute) throws Exception {
+
+        if (!WebRequest.isAvailable()) {
+            throw new RuntimeException("Web Request is unavailable.");
+        }
+        WebRequest currentWebRequest = WebRequest.getCurrent();
+
+        ToolUser currentUser = currentWebRequest.as(ToolRequest.class).getCurrentUser();
+
+        if (currentUser == null || !currentUser.hasPermission("area/admin/adminSites")) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        UUID siteId = currentWebRequest.getParameter(UUID.class, SITE_ID_PARAMETER);
+        UUID typeId = currentWebRequest.getParameter(UUID.class, TYPE_ID_PARAMETER);
+        Integer parallelism = currentWebRequest.getParameter(Integer.class, PARALLELISM_PARAMETER);
+        Double rate = currentWebRequest.getParameter(Double.class, RATE_PARAMETER);
+
+        List<Site> sites = siteId != null
+            ? Query.from(Site.class).where("_id = ?", siteId).selectAll()
+            : Query.from(Site.class).selectAll();
+
+        for (Site site : sites) {
+            ReviewCycleSettingsSnapshot snapshot = ReviewCycleSettingsSnapshot.get(site);
+
+            // Without a content type map, there is no next review date to backfill
+            if (snapshot == null) {
+                continue;
+            }
+
+            List<UUID> typeIds = new ArrayList<>();
+
+            for (ReviewCycleContentTypeMap map : snapshot.getContentTypeMaps()) {
+                ObjectType type = map.getContentType();
+
+                if (typeId != null && !typeId.equals(type.getId())) {
+                    continue;
+                }
+
+                long missing = ReviewCycleRecomputeTask.newMissingQuery(site, type).count();
+
+                response.toBody().write(P.with(site.getName() + " - " + type.getDisplayName() + ": " + missing));
+
+                if (missing > 0) {
+                    typeIds.add(type.getId());
+                }
+            }
+
+            if (execute && !typeIds.isEmpty()) {
+                new ReviewCycleRecomputeTask(
+                    site,
+                    typeIds,
+                    true,
+                    parallelism != null && parallelism > 0 ? parallelism : DEFAULT_PARALLELISM,
+                    rate != null && rate > 0 ? rate : DEFAULT_RATE).submit();
+
+                response.toBody().write(P.with("Started backfill for " + site.getName()));
+            }
+        }
+    }
+}
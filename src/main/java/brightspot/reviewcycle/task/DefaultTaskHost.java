@@ -1,34 +1,139 @@
 package brightspot.reviewcycle.task;
 
+import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import com.psddev.cms.tool.CmsTool;
-import com.psddev.dari.db.Singleton;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Determines whether this node is the configured {@link DefaultTaskHostSetting#getDefaultTaskHost() default task
+ * host}. The host name is resolved once and compared against every address of every local network interface. The
+ * result is cached and refreshed in the background once it is older than {@link #TTL_MILLIS}, or resolved again
+ * right away when the setting changes.
+ */
 public final class DefaultTaskHost {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultTaskHost.class);
 
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final ExecutorService REFRESHER = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("review-cycle-task-host")
+            .setDaemon(true)
+            .build());
+
+    private static final AtomicBoolean REFRESHING = new AtomicBoolean();
+
+    private static final String NODE_ID = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    private static volatile Resolution resolution;
+
     private DefaultTaskHost() {
     }
 
+    /**
+     * @return ID that uniquely identifies this JVM within the cluster.
+     */
+    public static String getNodeId() {
+        return NODE_ID;
+    }
+
     public static boolean isRunningOnTaskHost() {
-        String defaultTaskHost = Singleton.getInstance(CmsTool.class).as(DefaultTaskHostSetting.class).getDefaultTaskHost();
-        if (!StringUtils.isEmpty(defaultTaskHost)) {
-            try {
-                InetAddress localAddress = InetAddress.getLocalHost();
-                InetAddress allowedAddress = InetAddress.getByName(defaultTaskHost);
-                if (localAddress.getHostAddress().equals(allowedAddress.getHostAddress())) {
-                    return true;
+        String defaultTaskHost = DefaultTaskHostSetting.getDefaultTaskHostValue();
+        if (StringUtils.isEmpty(defaultTaskHost)) {
+            return false;
+        }
+
+        Resolution current = resolution;
+
+        if (current == null || !defaultTaskHost.equals(current.host)) {
+            // First check or the setting changed, so the cached result can't be used
+            current = resolve(defaultTaskHost);
+            resolution = current;
+
+        } else if (current.isExpired() && REFRESHING.compareAndSet(false, true)) {
+            REFRESHER.execute(() -> {
+                try {
+                    Resolution refreshed = resolve(defaultTaskHost);
+                    if (defaultTaskHost.equals(resolution.host)) {
+                        resolution = refreshed;
+                    }
+                } finally {
+                    REFRESHING.set(false);
                 }
-            } catch (UnknownHostException e) {
-                LOGGER.warn("Exception finding host name; message: " + e.getMessage());
+            });
+        }
+
+        return current.matches;
+    }
+
+    private static Resolution resolve(String defaultTaskHost) {
+        boolean matches = false;
+
+        try {
+            Set<String> allowedAddresses = new HashSet<>();
+            for (InetAddress address : InetAddress.getAllByName(defaultTaskHost)) {
+                allowedAddresses.add(address.getHostAddress());
             }
+
+            matches = !Collections.disjoint(getLocalAddresses(), allowedAddresses);
+
+        } catch (UnknownHostException e) {
+            LOGGER.warn("Exception finding host name; message: " + e.getMessage());
+        }
+
+        return new Resolution(defaultTaskHost, matches);
+    }
+
+    private static Set<String> getLocalAddresses() {
+        Set<String> localAddresses = new HashSet<>();
+
+        try {
+            localAddresses.add(InetAddress.getLocalHost().getHostAddress());
+        } catch (UnknownHostException e) {
+            LOGGER.warn("Exception finding local host name; message: " + e.getMessage());
+        }
+
+        try {
+            for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                for (InetAddress address : Collections.list(networkInterface.getInetAddresses())) {
+                    localAddresses.add(address.getHostAddress());
+                }
+            }
+        } catch (SocketException e) {
+            LOGGER.warn("Exception listing network interfaces; message: " + e.getMessage());
+        }
+
+        return localAddresses;
+    }
+
+    private static final class Resolution {
+
+        private final String host;
+        private final boolean matches;
+        private final long resolvedAt = System.currentTimeMillis();
+
+        private Resolution(String host, boolean matches) {
+            this.host = host;
+            this.matches = matches;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - resolvedAt > TTL_MILLIS;
         }
-        return false;
     }
-}
\ No newline at end of file
+}
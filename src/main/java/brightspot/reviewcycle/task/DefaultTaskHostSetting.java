@@ -6,6 +6,7 @@ import com.psddev.cms.tool.CmsTool;
 import com.psddev.cms.ui.form.DynamicPlaceholderMethod;
 import com.psddev.dari.db.Modification;
 import com.psddev.dari.db.Recordable;
+import com.psddev.dari.db.Singleton;
 import com.psddev.dari.util.ObjectUtils;
 
 @Recordable.FieldInternalNamePrefix("reviewcycle.")
@@ -27,6 +28,13 @@ public class DefaultTaskHostSetting extends Modification<CmsTool> {
         this.defaultTaskHost = defaultTaskHost;
     }
 
+    /**
+     * @return the configured default task host, or {@code null} if there is none.
+     */
+    public static String getDefaultTaskHostValue() {
+        return Singleton.getInstance(CmsTool.class).as(DefaultTaskHostSetting.class).getDefaultTaskHost();
+    }
+
     private String getFallbackTaskHost() {
         // This is mainly for backwards compatibility, early versions
         // forgot a prefix so this is falling back to that old value
@@ -0,0 +1,118 @@
+package brightspot.reviewcycle.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.psddev.dari.db.Database;
+import com.psddev.dari.db.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups writes into batches that are committed together using {@link Database#beginWrites()} and
+ * {@link Database#commitWrites()}, instead of committing each write on its own. Pending writes are committed whenever
+ * the batch size is reached and when {@link #flush()} is called. Writes still pending when the writer is closed, such
+ * as after an exception, are discarded.
+ *
+ * If a batch fails, its writes are retried one at a time, so that a single failing record is logged and skipped
+ * instead of discarding the rest of the batch.
+ */
+public class ReviewCycleBatchWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReviewCycleBatchWriter.class);
+
+    private final int batchSize;
+
+    private final List<Object> pendingRecords = new ArrayList<>();
+
+    private final List<Runnable> pending = new ArrayList<>();
+
+    private long committed;
+
+    public ReviewCycleBatchWriter(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Queues the given write of the given record, such as {@code record::save} or {@code notification::publish},
+     * committing the current batch if it is full.
+     *
+     * @param record record being written, for logging.
+     * @param write write to perform within the batch.
+     */
+    public void write(Object record, Runnable write) {
+        pendingRecords.add(record);
+        pending.add(write);
+
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Commits all pending writes in a single batch.
+     */
+    public void flush() {
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            commit(pending);
+            committed += pending.size();
+
+        } catch (RuntimeException e) {
+            LOGGER.debug("Unable to commit a batch of {} writes, retrying them one at a time", pending.size(), e);
+
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    commit(pending.subList(i, i + 1));
+                    committed++;
+
+                } catch (RuntimeException error) {
+                    LOGGER.warn("Unable to write [" + State.getInstance(pendingRecords.get(i)).getId() + "]!", error);
+                }
+            }
+
+        } finally {
+            pendingRecords.clear();
+            pending.clear();
+        }
+    }
+
+    /**
+     * @return number of writes committed so far, not counting the ones that failed.
+     */
+    public long getCommitted() {
+        return committed;
+    }
+
+    private static void commit(List<Runnable> writes) {
+
+        Database database = Database.Static.getDefault();
+
+        database.beginWrites();
+
+        try {
+            for (Runnable write : writes) {
+                write.run();
+            }
+
+            database.commitWrites();
+
+        } finally {
+            database.endWrites();
+        }
+    }
+
+    @Override
+    public void close() {
+
+        if (!pending.isEmpty()) {
+            LOGGER.warn("Discarding {} review cycle writes that were not flushed", pending.size());
+            pendingRecords.clear();
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package brightspot.reviewcycle.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import brightspot.reviewcycle.ReviewCycleContentModification;
+import brightspot.reviewcycle.notification.ReviewCycleDigestItem;
+import brightspot.reviewcycle.notification.ReviewCycleDueNotification;
+import brightspot.reviewcycle.notification.ReviewCycleNotificationBundle;
+import brightspot.reviewcycle.notification.ReviewCycleWatcherCache;
+import com.psddev.cms.db.Content;
+import com.psddev.cms.db.Site;
+import com.psddev.dari.db.Query;
+
+/**
+ * Groups the due content of a site by watcher, so that {@link ReviewCycleDueRepeatingTask} sends each watcher a
+ * single daily digest notification instead of one notification per content. The items of each chunk of content are
+ * merged into the daily digests right away, so that only the IDs of the watchers seen so far are kept in memory. New
+ * digests are only saved until the whole site has been collected, and then published once.
+ *
+ * Content that becomes due after today's digest has been delivered is collected into another digest for the same
+ * day, which only holds the content that hasn't been delivered yet.
+ */
+class ReviewCycleDigestCollector {
+
+    private final Site site;
+
+    private final long day;
+
+    private final boolean incremental;
+
+    private final int chunkSize;
+
+    private final int writeBatchSize;
+
+    private final Set<UUID> collectedRecipientIds = new HashSet<>();
+
+    /**
+     * @param site site of the due content.
+     * @param day UTC epoch day of the digests.
+     * @param incremental {@code true} if only content changed since the last run is collected, in which case the
+     *     items are merged into today's undelivered digests instead of replacing them.
+     * @param chunkSize number of digests looked up at once.
+     * @param writeBatchSize number of digests written in a single batch.
+     */
+    ReviewCycleDigestCollector(Site site, long day, boolean incremental, int chunkSize, int writeBatchSize) {
+        this.site = site;
+        this.day = day;
+        this.incremental = incremental;
+        this.chunkSize = chunkSize;
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    /**
+     * Adds a chunk of due content to the digests of its watchers. Content already delivered today is refreshed in the
+     * delivered digest, and the rest is added to the undelivered one. Only the compact digest items are written, so
+     * the content of the chunk can be released afterwards.
+     *
+     * @param chunk due content.
+     */
+    void add(List<Content> chunk) {
+
+        Map<UUID, List<ReviewCycleDigestItem>> itemsByRecipientId = new LinkedHashMap<>();
+
+        for (Content content : chunk) {
+            ReviewCycleDigestItem item = new ReviewCycleDigestItem(
+                    content.getId(),
+                    content.getLabel(),
+                    content.as(ReviewCycleContentModification.class).getNextReviewDate());
+
+            for (UUID watcherId : ReviewCycleWatcherCache.resolve(content)) {
+                itemsByRecipientId.computeIfAbsent(watcherId, id -> new ArrayList<>()).add(item);
+            }
+        }
+
+        List<UUID> recipientIds = new ArrayList<>(itemsByRecipientId.keySet());
+
+        for (int from = 0; from < recipientIds.size(); from += chunkSize) {
+            Map<String, UUID> recipientIdsByKey = getRecipientIdsByKey(
+                    recipientIds.subList(from, Math.min(from + chunkSize, recipientIds.size())));
+
+            Map<String, ReviewCycleDueNotification> undeliveredByKey = new HashMap<>();
+            Map<String, List<ReviewCycleDueNotification>> deliveredByKey = new HashMap<>();
+
+            for (ReviewCycleDueNotification notification : Query.from(ReviewCycleDueNotification.class)
+                    .where("digestKey = ?", recipientIdsByKey.keySet())
+                    .and("publishedAt = missing")
+                    .master()
+                    .noCache()
+                    .selectAll()) {
+
+                if (notification.getBundle() != null) {
+                    undeliveredByKey.putIfAbsent(notification.getDigestKey(), notification);
+                }
+            }
+
+            for (ReviewCycleDueNotification notification : Query.from(ReviewCycleDueNotification.class)
+                    .where("digestKey = ?", recipientIdsByKey.keySet())
+                    .and("publishedAt != missing")
+                    .master()
+                    .noCache()
+                    .selectAll()) {
+
+                if (notification.getBundle() != null) {
+                    deliveredByKey.computeIfAbsent(notification.getDigestKey(), key -> new ArrayList<>())
+                            .add(notification);
+                }
+            }
+
+            try (ReviewCycleBatchWriter writer = new ReviewCycleBatchWriter(writeBatchSize)) {
+                for (Map.Entry<String, UUID> entry : recipientIdsByKey.entrySet()) {
+                    UUID recipientId = entry.getValue();
+                    Map<UUID, ReviewCycleDigestItem> items = new LinkedHashMap<>();
+
+                    for (ReviewCycleDigestItem item : itemsByRecipientId.get(recipientId)) {
+                        items.put(item.getContentId(), item);
+                    }
+
+                    // Content already delivered today is only refreshed, so that it isn't delivered again
+                    for (ReviewCycleDueNotification delivered : deliveredByKey.getOrDefault(
+                            entry.getKey(),
+                            Collections.emptyList())) {
+
+                        List<ReviewCycleDigestItem> deliveredItems = delivered.getBundle().getDigestItems();
+                        boolean refreshed = false;
+
+                        for (int i = 0; i < deliveredItems.size(); i++) {
+                            ReviewCycleDigestItem item = items.remove(deliveredItems.get(i).getContentId());
+
+                            if (item != null) {
+                                deliveredItems.set(i, item);
+                                refreshed = true;
+                            }
+                        }
+
+                        if (refreshed) {
+                            writer.write(delivered, delivered::save);
+                        }
+                    }
+
+                    // The first chunk of a full scan replaces the items of an earlier run, later chunks add to them
+                    boolean merge = incremental || !collectedRecipientIds.add(recipientId);
+
+                    if (items.isEmpty()) {
+                        continue;
+                    }
+
+                    ReviewCycleDueNotification undelivered = undeliveredByKey.get(entry.getKey());
+
+                    if (undelivered != null) {
+                        List<ReviewCycleDigestItem> newItems = new ArrayList<>(items.values());
+
+                        if (merge) {
+                            newItems = merge(undelivered.getBundle().getDigestItems(), newItems);
+                        }
+
+                        undelivered.getBundle().setDigestItems(newItems);
+                        undelivered.getBundle().setLastNotified(new Date());
+                        writer.write(undelivered, undelivered::save);
+
+                    } else {
+                        ReviewCycleNotificationBundle bundle = new ReviewCycleNotificationBundle();
+                        bundle.setOwnerId(site.getId());
+                        bundle.setOwnerName(site.getName());
+                        bundle.setLastNotified(new Date());
+                        bundle.setDigestItems(new ArrayList<>(items.values()));
+
+                        ReviewCycleDueNotification digest = new ReviewCycleDueNotification(bundle);
+                        digest.setRecipientId(recipientId);
+                        digest.setDigestKey(entry.getKey());
+                        writer.write(digest, digest::save);
+                    }
+                }
+
+                writer.flush();
+            }
+        }
+    }
+
+    /**
+     * Publishes today's undelivered digests of the site, including the ones left by an interrupted run, and removes
+     * the ones an interrupted run left on an earlier day, since their content has been collected again since.
+     */
+    void publish() {
+
+        String todaySuffix = "/" + site.getId() + "/" + day;
+        UUID lastId = null;
+
+        while (true) {
+            Query<ReviewCycleDueNotification> query = Query.from(ReviewCycleDueNotification.class)
+                    .where("getOwnerId = ?", site.getId())
+                    .and("digestKey != missing")
+                    .and("publishedAt = missing");
+
+            if (lastId != null) {
+                query.and("_id > ?", lastId);
+            }
+
+            List<ReviewCycleDueNotification> batch = query
+                    .sortAscending("_id")
+                    .master()
+                    .noCache()
+                    .select(0, chunkSize)
+                    .getItems();
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            try (ReviewCycleBatchWriter writer = new ReviewCycleBatchWriter(writeBatchSize)) {
+                for (ReviewCycleDueNotification digest : batch) {
+                    if (digest.getDigestKey().endsWith(todaySuffix)) {
+                        writer.write(digest, digest::publish);
+
+                    } else {
+                        writer.write(digest, digest::delete);
+                    }
+                }
+
+                writer.flush();
+            }
+
+            lastId = batch.get(batch.size() - 1).getId();
+
+            if (batch.size() < chunkSize) {
+                break;
+            }
+        }
+    }
+
+    private Map<String, UUID> getRecipientIdsByKey(List<UUID> recipientIds) {
+
+        Map<String, UUID> recipientIdsByKey = new LinkedHashMap<>();
+
+        for (UUID recipientId : recipientIds) {
+            recipientIdsByKey.put(
+                    ReviewCycleDueNotification.createDigestKey(recipientId, site.getId(), day),
+                    recipientId);
+        }
+
+        return recipientIdsByKey;
+    }
+
+    private static List<ReviewCycleDigestItem> merge(
+            List<ReviewCycleDigestItem> existing,
+            List<ReviewCycleDigestItem> changed) {
+
+        Map<UUID, ReviewCycleDigestItem> merged = new LinkedHashMap<>();
+
+        for (ReviewCycleDigestItem item : existing) {
+            merged.put(item.getContentId(), item);
+        }
+
+        for (ReviewCycleDigestItem item : changed) {
+            merged.put(item.getContentId(), item);
+        }
+
+        return new ArrayList<>(merged.values());
+    }
+}
@@ -6,26 +6,41 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+import brightspot.reviewcycle.NotificationInterval;
 import brightspot.reviewcycle.ReviewCycleContentModification;
 import brightspot.reviewcycle.ReviewCycleContentTypeMap;
-import brightspot.reviewcycle.ReviewCycleDurationForContent;
-import brightspot.reviewcycle.ReviewCycleSettings;
-import brightspot.reviewcycle.ReviewCycleSiteSettings;
+import brightspot.reviewcycle.ReviewCycleSettingsSnapshot;
 import brightspot.reviewcycle.notification.ReviewCycleDueNotification;
 import brightspot.reviewcycle.notification.ReviewCycleDueWarningDuration;
 import brightspot.reviewcycle.notification.ReviewCycleNotificationBundle;
+import brightspot.reviewcycle.notification.ReviewCycleWatcherCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.psddev.cms.db.Content;
 import com.psddev.cms.db.Site;
-import com.psddev.cms.db.SiteSettings;
+import com.psddev.cms.tool.CmsTool;
 import com.psddev.dari.db.CompoundPredicate;
 import com.psddev.dari.db.Predicate;
 import com.psddev.dari.db.PredicateParser;
 import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Singleton;
 import com.psddev.dari.util.RepeatingTask;
+import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,8 +54,22 @@ public class ReviewCycleDueRepeatingTask extends RepeatingTask {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ReviewCycleDueRepeatingTask.class);
 
+    private static final String LEASE_NAME = ReviewCycleDueRepeatingTask.class.getName();
+
+    private static final long PREFERRED_HOST_GRACE_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final String OVERRIDES_PHASE = "overrides";
+
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+
     private Site site;
 
+    private volatile Long leaseToken;
+
+    private volatile boolean leaseLost;
+
+    private final Map<UUID, Long> siteLeaseTokens = new ConcurrentHashMap<>();
+
     public Site getSite() {
         return site;
     }
@@ -55,121 +84,375 @@ public class ReviewCycleDueRepeatingTask extends RepeatingTask {
     @Override
     public void doRepeatingTask(DateTime runTime) {
 
-        List<Site> sites = Query.from(Site.class).selectAll();
+        // A run that takes longer than the interval must not overlap with the next one
+        if (!RUNNING.compareAndSet(false, true)) {
+            LOGGER.info("Previous review cycle due check is still running, skipping this run");
+            return;
+        }
 
-        for (Site value : sites) {
+        try {
+            doRepeatingTaskExclusively();
 
-            ReviewCycleSettings settings = SiteSettings.get(
-                    value,
-                    siteSettings -> siteSettings.as(ReviewCycleSiteSettings.class).getSettings());
+        } finally {
+            RUNNING.set(false);
+        }
+    }
 
-            // If settings is disabled here, check the next site
-            if (settings == null) {
-                continue;
-            }
+    private void doRepeatingTaskExclusively() {
 
-            List<ReviewCycleContentTypeMap> contentMaps = SiteSettings.get(
-                    value,
-                    siteSettings -> settings.getContentTypeMaps());
+        try {
+            ReviewCycleRecomputeTask.resumeInterrupted();
 
-            List<ReviewCycleDueWarningDuration> notificationWarningTimes = SiteSettings.get(
-                    value,
-                    siteSettings -> settings.getNotificationWarningTimes());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to resume next review date recalculations!", e);
+        }
 
-            Predicate dueNowOrWarningPredicate;
+        if (!acquireExecution()) {
+            return;
+        }
+
+        List<Site> sites = getSites();
+
+        if (getTaskSettings().getTaskExecutionMode() == ReviewCycleTaskExecutionMode.SHARDED) {
+            sites = getShardSites(sites);
+        }
 
-            // Time of now, truncated to days
-            Date now = Date.from(new Date().toInstant().truncatedTo(ChronoUnit.DAYS));
+        int parallelism = Math.min(getTaskSettings().getTaskParallelism(), sites.size());
 
-            // Handle each Type mapped in Sites & Settings
-            for (ReviewCycleContentTypeMap map : contentMaps) {
-                dueNowOrWarningPredicate = CompoundPredicate.combine(
-                        PredicateParser.OR_OPERATOR,
-                        map.getExpiredPredicate(now),
-                        ReviewCycleDueWarningDuration.getDueWarningPredicate(now, notificationWarningTimes));
+        if (parallelism <= 1) {
+            for (Site value : sites) {
+                processSiteTimed(value);
+            }
+            return;
+        }
 
-                // Check for content (that is due or has a warning today) that does not have overrides
-                List<Content> contents = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                parallelism,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("review-cycle-due-%d")
+                        .setDaemon(true)
+                        .build());
 
-                Query.from(Content.class)
-                        .where(map.getTypePredicate())
-                        .and(dueNowOrWarningPredicate)
-                        .and(ReviewCycleContentModification.REVIEW_CYCLE_DURATION_FIELD_INTERNAL_NAME + " = missing")
-                        .and(getSitePredicate())
-                        .iterable(10).forEach(contents::add);
+        try {
+            Map<Site, Future<?>> futures = new LinkedHashMap<>();
 
-                // Prevents duplication of notification records
-                dedupeNotificationRecords(contents);
+            for (Site value : sites) {
+                futures.put(value, executor.submit(() -> processSiteTimed(value)));
             }
 
-            List<Content> overridesList = new ArrayList<>();
-
-            // Handle cycle overrides
-
-            List<ReviewCycleDurationForContent> durations = Query.from(ReviewCycleDurationForContent.class).selectAll();
-
-            if (durations.size() > 0) {
-                for (ReviewCycleDurationForContent duration : durations) {
-                    // Generate predicate
-                    Predicate datePredicate = PredicateParser.Static.parse(
-                            ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
-                                    + " != missing and "
-                                    + ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
-                                    + " < ?", now.getTime());
-
-                    dueNowOrWarningPredicate = CompoundPredicate.combine(
-                            PredicateParser.OR_OPERATOR,
-                            datePredicate,
-                            ReviewCycleDueWarningDuration.getDueWarningPredicate(now, notificationWarningTimes));
-
-                    // Search for all content where the override is not missing and the date for this duration is due
-                    Query.from(Content.class)
-                            .where(ReviewCycleContentModification.REVIEW_CYCLE_DURATION_FIELD_INTERNAL_NAME + " != missing")
-                            .and(ReviewCycleContentModification.REVIEW_CYCLE_DURATION_FIELD_INTERNAL_NAME + " = ?", duration)
-                            .and(dueNowOrWarningPredicate)
-                            .and(getSitePredicate())
-                            .iterable(10)
-                            .forEach(overridesList::add);
+            // A failing site is only logged, so that the other sites still finish
+            for (Map.Entry<Site, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+
+                } catch (ExecutionException e) {
+                    LOGGER.warn("Review cycle due check failed for site [" + entry.getKey().getName() + "]!",
+                            e.getCause());
                 }
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+        } finally {
+            // Every site has finished unless this thread was interrupted, in which case the rest are stopped
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks a single site for due content and logs how long it took, so the parallelism can be sized. Sites that
+     * weren't scanned are only logged at debug level.
+     *
+     * @param value site to check.
+     */
+    private void processSiteTimed(Site value) {
+
+        // Stop writing as soon as another node has taken over the lease
+        if (!renewExecution() || !claimSite(value)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean scanned = false;
+
+        try {
+            scanned = processSite(value);
+
+        } catch (RuntimeException e) {
+            LOGGER.warn("Review cycle due check failed for site [" + value.getName() + "]!", e);
+
+        } finally {
+            releaseSite(value);
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Sites that are skipped would otherwise log a line on every run
+            if (scanned) {
+                LOGGER.info("Review cycle due check for site [{}] took {} ms", value.getName(), millis);
 
             } else {
-                /* If there are no notification durations configured in sites & settings, conditional will arrive here
-                 * to catch anything that is past due
-                 */
-                for (ReviewCycleContentTypeMap contentMap : contentMaps) {
-                    Predicate datePredicate = PredicateParser.Static.parse(
-                            ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
-                                    + " != missing and "
-                                    + ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
-                                    + " < ?", now.getTime());
-
-                    Query.from(Content.class)
-                            .where(contentMap.getTypePredicate())
-                            .and(ReviewCycleContentModification.REVIEW_CYCLE_DURATION_FIELD_INTERNAL_NAME + " != missing")
-                            .and(datePredicate)
-                            .and(getSitePredicate())
-                            .iterable(10)
-                            .forEach(overridesList::add);
+                LOGGER.debug("Review cycle due check for site [{}] skipped in {} ms", value.getName(), millis);
+            }
+        }
+    }
+
+    /**
+     * Publishes or updates notifications for the content of the given site that is due or has a warning today.
+     *
+     * @param value site to check.
+     * @return {@code false} if the site wasn't scanned, because it is disabled or its interval hasn't passed yet.
+     */
+    private boolean processSite(Site value) {
+
+        ReviewCycleSettingsSnapshot settings = ReviewCycleSettingsSnapshot.get(value);
+
+        // If settings is disabled here, there is nothing to check for this site
+        if (settings == null) {
+            return false;
+        }
+
+        Date runDate = new Date();
+        ReviewCycleDueWatermark watermark = ReviewCycleDueWatermark.findOrCreate(value);
+
+        // Sites with a longer notification interval are only checked once their interval has passed
+        if (watermark.getLastRunDate() != null
+                && settings.getNotificationInterval()
+                .getNextRunTime(new DateTime(watermark.getLastRunDate()))
+                .isAfter(runDate.getTime())) {
+            return false;
+        }
+
+        List<ReviewCycleContentTypeMap> contentMaps = settings.getContentTypeMaps();
+        List<ReviewCycleDueWarningDuration> notificationWarningTimes = settings.getNotificationWarningTimes();
+
+        Predicate dueNowOrWarningPredicate;
+
+        // Time of now, truncated to days
+        Date now = Date.from(runDate.toInstant().truncatedTo(ChronoUnit.DAYS));
+        long today = TimeUnit.MILLISECONDS.toDays(now.getTime());
+
+        /* The predicates only change at the day boundary, so after the first full scan of the day, incremental runs
+         * only need to look at content that has been updated (and so had its next review date recalculated) since.
+         */
+        Predicate changedPredicate = null;
+
+        if (getTaskSettings().isIncrementalScan()
+                && watermark.getLastCompletedDay() != null
+                && watermark.getLastCompletedDay() >= today
+                && watermark.getLastRunDate() != null
+                && !watermark.isResetSince(watermark.getLastRunDate())) {
+
+            changedPredicate = PredicateParser.Static.parse(
+                    Content.UPDATE_DATE_FIELD + " >= ?",
+                    watermark.getLastRunDate().getTime());
+        }
+
+        List<String> phases = contentMaps.stream()
+                .map(map -> map.getContentType().getId().toString())
+                .collect(Collectors.toCollection(ArrayList::new));
+        phases.add(OVERRIDES_PHASE);
+
+        // Digests are only published once the whole site has been collected, so they always start over
+        ReviewCycleDigestCollector digest = settings.isSendDailyDigest()
+                ? new ReviewCycleDigestCollector(
+                        value,
+                        today,
+                        changedPredicate != null,
+                        getChunkSize(),
+                        getTaskSettings().getWriteBatchSize())
+                : null;
+
+        // Resume from where an interrupted run for this site left off today, which digests don't need
+        ReviewCycleTaskCheckpoint checkpoint = digest == null
+                ? ReviewCycleTaskCheckpoint.findOrCreate(value, today)
+                : null;
+
+        int resumeIndex = checkpoint != null ? Math.max(0, phases.indexOf(checkpoint.getPhase())) : 0;
+
+        // Handle each Type mapped in Sites & Settings
+        for (int i = 0; i < contentMaps.size(); i++) {
+            if (i < resumeIndex) {
+                continue;
+            }
+
+            ReviewCycleContentTypeMap map = contentMaps.get(i);
+
+            dueNowOrWarningPredicate = CompoundPredicate.combine(
+                    PredicateParser.OR_OPERATOR,
+                    map.getExpiredPredicate(now),
+                    ReviewCycleDueWarningDuration.getDueWarningPredicate(now, notificationWarningTimes));
+
+            // Check for content (that is due or has a warning today) that does not have overrides
+            if (!processInChunks(newDueContentQuery(value, changedPredicate)
+                    .and(map.getTypePredicate())
+                    .and(dueNowOrWarningPredicate)
+                    .and(ReviewCycleContentModification.REVIEW_CYCLE_DURATION_FIELD_INTERNAL_NAME + " = missing"),
+                    value,
+                    checkpoint,
+                    phases.get(i),
+                    digest)) {
+                return true;
+            }
+        }
+
+        /* Handle cycle overrides. The date predicate does not depend on the override duration, so a single query
+         * covers every duration instead of one query per ReviewCycleDurationForContent.
+         */
+        Predicate datePredicate = PredicateParser.Static.parse(
+                ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
+                        + " != missing and "
+                        + ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME
+                        + " < ?", now.getTime());
+
+        dueNowOrWarningPredicate = CompoundPredicate.combine(
+                PredicateParser.OR_OPERATOR,
+                datePredicate,
+                ReviewCycleDueWarningDuration.getDueWarningPredicate(now, notificationWarningTimes));
+
+        // Search for all content where the override is not missing and the date is due
+        if (!processInChunks(newDueContentQuery(value, changedPredicate)
+                .and(ReviewCycleContentModification.REVIEW_CYCLE_DURATION_FIELD_INTERNAL_NAME + " != missing")
+                .and(dueNowOrWarningPredicate),
+                value,
+                checkpoint,
+                OVERRIDES_PHASE,
+                digest)) {
+            return true;
+        }
+
+        if (digest != null) {
+            digest.publish();
+        }
+
+        /* The last run date only matters for incremental scans and for intervals longer than the schedule, so the
+         * watermark is otherwise only written once a day, when the first full scan of the day completes.
+         */
+        if (getTaskSettings().isIncrementalScan()
+                || settings.getNotificationInterval() != NotificationInterval.MINUTE
+                || watermark.getLastCompletedDay() == null
+                || watermark.getLastCompletedDay() < today) {
+
+            /* A recalculation may have reset the watermark while this run was scanning, without changing the update
+             * date of the content it rewrote, so the watermark is read again and the reset is kept for the next run.
+             */
+            watermark = ReviewCycleDueWatermark.findOrCreate(value);
+            watermark.setLastCompletedDay(watermark.isResetSince(runDate) ? null : today);
+            watermark.setLastRunDate(runDate);
+            watermark.saveImmediately();
+        }
+
+        if (checkpoint != null && !checkpoint.getState().isNew()) {
+            checkpoint.delete();
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Returns a query of content owned by the given site, optionally limited to content that has changed since the
+     * last run.
+     *
+     * @param owner site currently being checked.
+     * @param changedPredicate nullable predicate matching content changed since the last run.
+     * @return query to further restrict to due content.
+     */
+    private Query<Content> newDueContentQuery(Site owner, Predicate changedPredicate) {
+
+        Query<Content> query = Query.from(Content.class).where(getSitePredicate(owner));
+
+        if (changedPredicate != null) {
+            query.and(changedPredicate);
+        }
+
+        return query;
+    }
+
+    /**
+     * Streams the results of the given query through {@link #dedupeNotificationRecords(List)} in fixed-size chunks.
+     * Each chunk is released before the next one is loaded, so memory use depends on the chunk size rather than on
+     * the number of due items.
+     *
+     * Content is processed in ID order and the checkpoint is saved after every chunk, so an interrupted run can
+     * continue after the last processed content. The leases are renewed after every chunk, and the site is left as
+     * soon as another node has taken them over.
+     *
+     * @param query query of content that is due or has a warning.
+     * @param owner site currently being checked.
+     * @param checkpoint progress of the current site, or {@code null} when collecting digests.
+     * @param phase content map (or overrides) being processed.
+     * @param digest nullable collector of daily digests, used instead of one notification per content.
+     * @return {@code false} if the lease was lost and the site has to be left unfinished.
+     */
+    private boolean processInChunks(
+            Query<Content> query,
+            Site owner,
+            ReviewCycleTaskCheckpoint checkpoint,
+            String phase,
+            ReviewCycleDigestCollector digest) {
+
+        if (checkpoint != null && phase.equals(checkpoint.getPhase()) && checkpoint.getLastContentId() != null) {
+            query.and("_id > ?", checkpoint.getLastContentId());
+        }
+
+        int chunkSize = getChunkSize();
+        List<Content> chunk = new ArrayList<>(chunkSize);
+
+        for (Content content : query.sortAscending("_id").iterable(chunkSize)) {
+            chunk.add(content);
+
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, checkpoint, phase, digest);
+                chunk = new ArrayList<>(chunkSize);
+
+                if (!renewExecution() || !renewSite(owner)) {
+                    return false;
                 }
             }
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, checkpoint, phase, digest);
+        }
+
+        return renewExecution() && renewSite(owner);
+    }
 
+    private void processChunk(
+            List<Content> chunk,
+            ReviewCycleTaskCheckpoint checkpoint,
+            String phase,
+            ReviewCycleDigestCollector digest) {
+
+        if (digest != null) {
+            digest.add(chunk);
+            return;
+        }
+
+        if (getTaskSettings().isDeterministicNotificationIds()) {
+            upsertNotificationRecords(chunk, checkpoint.getDay());
+
+        } else {
             // Prevents duplication of notification records
-            dedupeNotificationRecords(overridesList);
+            dedupeNotificationRecords(chunk);
         }
 
+        checkpoint.setPhase(phase);
+        checkpoint.setLastContentId(chunk.get(chunk.size() - 1).getId());
+        checkpoint.saveImmediately();
     }
 
     /**
-     * Prevents duplicate notification records of content by checking if it has already been published initially
+     * Prevents duplicate notification records of content by checking if it has already been published initially.
+     * Today's notifications are fetched for a whole chunk of content IDs at once, so the number of lookups depends
+     * on the number of chunks rather than on the number of due items.
      *
      * @param contentList list of content needed to be published or updated.
      */
     public void dedupeNotificationRecords(List<Content> contentList) {
 
-        // Get contentList ids
-        List<UUID> overridesListIds = contentList.stream().map(Content::getId).collect(Collectors.toList());
-
-        List<ReviewCycleDueNotification> reviewCycleDueNotifications = new ArrayList<>();
+        int chunkSize = getChunkSize();
 
         // We want to send out notifications ONCE daily AND to the latest notifications
         Calendar c = new GregorianCalendar();
@@ -180,65 +463,118 @@ public class ReviewCycleDueRepeatingTask extends RepeatingTask {
 
         Long d1 = c.getTime().toInstant().toEpochMilli();
 
-        c.set(Calendar.HOUR_OF_DAY, 23);
-        c.set(Calendar.MINUTE, 59);
-        c.set(Calendar.SECOND, 59);
-        c.set(Calendar.MILLISECOND, 999);
+        for (int from = 0; from < contentList.size(); from += chunkSize) {
+            List<Content> chunk = contentList.subList(from, Math.min(from + chunkSize, contentList.size()));
 
-        Long d2 = c.getTime().toInstant().toEpochMilli();
+            Set<UUID> chunkIds = chunk.stream()
+                    .map(Content::getId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        // Get all notifications from the content ids
-        for (int i = 0; i < overridesListIds.size(); i++) {
+            // Get all of today's notifications for the chunk in a single query
+            Map<UUID, ReviewCycleDueNotification> notificationsByContentId = new HashMap<>();
 
-            ReviewCycleDueNotification notification = Query.from(ReviewCycleDueNotification.class)
-                    .where("getContentId = ?", overridesListIds.get(i))
+            for (ReviewCycleDueNotification notification : Query.from(ReviewCycleDueNotification.class)
+                    .where("getContentId = ?", chunkIds)
                     .and("publishedAt >= ?", d1)
-                    .first();
+                    .selectAll()) {
 
-            if (notification != null) {
-                reviewCycleDueNotifications.add(notification);
-            } else {
-                // If notification is null, meaning it has never been updated today, publish it.
-                publishNotifications(Collections.singletonList(contentList.get(i)));
+                UUID contentId = notification.getContentId();
+
+                if (contentId != null) {
+                    notificationsByContentId.putIfAbsent(contentId, notification);
+                }
+            }
+
+            List<Content> unpublished = new ArrayList<>();
+            Map<ReviewCycleDueNotification, Content> reviewCycleDueNotifications = new LinkedHashMap<>();
+
+            for (Content content : chunk) {
+                ReviewCycleDueNotification notification = notificationsByContentId.get(content.getId());
+
+                if (notification != null) {
+                    reviewCycleDueNotifications.put(notification, content);
+                } else {
+                    // If notification is null, meaning it has never been updated today, publish it.
+                    unpublished.add(content);
+                }
+            }
+
+            // Writes are committed in batches and flushed at the end of each chunk
+            try (ReviewCycleBatchWriter writer = new ReviewCycleBatchWriter(getTaskSettings().getWriteBatchSize())) {
+                publishNotifications(unpublished, writer);
+
+                // Notifications already sent out today are only updated, not created again (until the next day)
+                updateNotificationRecordsPerDay(reviewCycleDueNotifications, writer);
+                writer.flush();
             }
         }
+    }
 
-        /* If there are more than 0 notifications that have been sent out today, we only update notification records
-            not creating new ones (until the next day), because that means publishedNotifications has been called.
-         */
-        boolean notificationsSentOutToday = Query.from(ReviewCycleDueNotification.class)
-                .where("publishedAt >= ?", d1)
-                .and("publishedAt <= ?", d2)
-                .hasMoreThan(0);
+    /**
+     * Writes the notifications of the given content under IDs derived from the content and the day, instead of
+     * looking up the notifications already sent today by content and publish date like
+     * {@link #dedupeNotificationRecords(List)} does. The existing notifications of the chunk are loaded by ID in a
+     * single query: only the missing ones are published, and the existing ones are updated in place, so that they
+     * keep their publish date and aren't delivered again.
+     *
+     * @param contentList list of content queried as being due.
+     * @param day UTC epoch day of the current run.
+     */
+    private void upsertNotificationRecords(List<Content> contentList, long day) {
 
-        if (notificationsSentOutToday) {
-            updateNotificationRecordsPerDay(reviewCycleDueNotifications);
-        } else {
-            // Else if there are 0 that have been sent out
-            publishNotifications(contentList);
+        Map<UUID, Content> contentByDailyId = new LinkedHashMap<>();
+
+        for (Content content : contentList) {
+            contentByDailyId.put(ReviewCycleDueNotification.createDailyId(content.getId(), day), content);
+        }
+
+        Map<ReviewCycleDueNotification, Content> existing = new LinkedHashMap<>();
+
+        for (ReviewCycleDueNotification notification : Query.from(ReviewCycleDueNotification.class)
+                .where("_id = ?", contentByDailyId.keySet())
+                .master()
+                .noCache()
+                .selectAll()) {
+
+            existing.put(notification, contentByDailyId.remove(notification.getId()));
+        }
+
+        // Delivery looks up the watchers of each notification, so cache them while the content is loaded
+        ReviewCycleWatcherCache.prefetch(contentByDailyId.values());
+
+        try (ReviewCycleBatchWriter writer = new ReviewCycleBatchWriter(getTaskSettings().getWriteBatchSize())) {
+            for (Map.Entry<UUID, Content> entry : contentByDailyId.entrySet()) {
+                ReviewCycleDueNotification notification = newNotification(entry.getValue());
+                notification.getState().setId(entry.getKey());
+                writer.write(notification, notification::publish);
+            }
+
+            updateNotificationRecordsPerDay(existing, writer);
+            writer.flush();
         }
     }
 
     /**
-     * Takes in a list of notifications and modifies them by setting their last notified date to current date time.
+     * Takes in notifications already sent out today and modifies them by setting their last notified date to current
+     * date time. The due date is taken from the content of the chunk that is already loaded, so the content isn't
+     * loaded again through the notification.
      *
-     * @param notifications list of notifications.
+     * @param notifications notifications mapped to their content.
+     * @param writer batch the updates are written in.
      */
-    private void updateNotificationRecordsPerDay(List<ReviewCycleDueNotification> notifications) {
-        for (ReviewCycleDueNotification notification : notifications) {
-            Date nextDue;
+    private void updateNotificationRecordsPerDay(
+            Map<ReviewCycleDueNotification, Content> notifications,
+            ReviewCycleBatchWriter writer) {
+        for (Map.Entry<ReviewCycleDueNotification, Content> entry : notifications.entrySet()) {
+            ReviewCycleDueNotification notification = entry.getKey();
             ReviewCycleNotificationBundle reviewCycleNotificationBundle = notification.getBundle();
             if (reviewCycleNotificationBundle != null) {
                 // Calculate date
-                if (reviewCycleNotificationBundle.getContent() != null) {
-                    nextDue = reviewCycleNotificationBundle.getContent()
-                            .as(ReviewCycleContentModification.class)
-                            .getNextReviewDate();
-                    notification.getBundle().setDueDate(nextDue);
-
-                }
-                notification.getBundle().setLastNotified(new Date());
-                notification.saveImmediately();
+                reviewCycleNotificationBundle.setDueDate(entry.getValue()
+                        .as(ReviewCycleContentModification.class)
+                        .getNextReviewDate());
+                reviewCycleNotificationBundle.setLastNotified(new Date());
+                writer.write(notification, notification::save);
             }
         }
     }
@@ -248,55 +584,277 @@ public class ReviewCycleDueRepeatingTask extends RepeatingTask {
      * content.
      *
      * @param contentList list of content queried as being due.
+     * @param writer batch the notifications are published in.
      */
-    private void publishNotifications(List<Content> contentList) {
-        Date nextDue;
+    private void publishNotifications(List<Content> contentList, ReviewCycleBatchWriter writer) {
+
+        // Delivery looks up the watchers of each notification, so cache them while the content is loaded
+        ReviewCycleWatcherCache.prefetch(contentList);
+
         for (Content content : contentList) {
-            // Calculate date
-            nextDue = content
-                    .as(ReviewCycleContentModification.class)
-                    .getNextReviewDate();
-
-            new ReviewCycleDueNotification(
-                    content,
-                    content.getLabel(),
-                    content.getId(),
-                    new Date(),
-                    nextDue,
-                    content.as(Site.ObjectModification.class).getOwner().getName()).publish();
+            ReviewCycleDueNotification notification = newNotification(content);
+            writer.write(notification, notification::publish);
         }
     }
 
+    private ReviewCycleDueNotification newNotification(Content content) {
+
+        // Calculate date
+        Date nextDue = content
+                .as(ReviewCycleContentModification.class)
+                .getNextReviewDate();
+
+        Site owner = content.as(Site.ObjectModification.class).getOwner();
+
+        return new ReviewCycleDueNotification(
+                content.getId(),
+                content.getLabel(),
+                owner.getId(),
+                owner.getName(),
+                new Date(),
+                nextDue);
+    }
+
     /**
      * Returns a predicate to ensure that global content is not checked for ReviewCycle Controls and to only check
-     * content owned by the site for which the task is running.
+     * content owned by the given site, so that each site iteration scans its own partition of the content.
      *
+     * @param owner site currently being checked.
      * @return predicate to check proper site ownership
      */
-    private Predicate getSitePredicate() {
+    private Predicate getSitePredicate(Site owner) {
+        return PredicateParser.Static.parse("cms.site.owner = ?", owner);
+    }
 
-        Predicate validSites = PredicateParser.Static.parse("cms.site.owner != missing");
+    private int getChunkSize() {
+        return getTaskSettings().getTaskChunkSize();
+    }
 
-        if (getSite() != null) {
-            return CompoundPredicate.combine(
-                    PredicateParser.AND_OPERATOR,
-                    validSites,
-                    PredicateParser.Static.parse("cms.site.owner = ?", getSite()));
+    private ReviewCycleTaskSettings getTaskSettings() {
+        return Singleton.getInstance(CmsTool.class).as(ReviewCycleTaskSettings.class);
+    }
 
-        } else {
-            return validSites;
+    /**
+     * Returns the configured site if there is one, otherwise every site.
+     */
+    private List<Site> getSites() {
+        return getSite() != null
+                ? Collections.singletonList(getSite())
+                : Query.from(Site.class).selectAll();
+    }
+
+    /**
+     * Returns the shortest notification interval among the sites that have review cycle settings enabled.
+     */
+    private NotificationInterval getTightestInterval() {
+
+        if (getSite() == null) {
+            return ReviewCycleSettingsSnapshot.getTightestInterval();
+        }
+
+        ReviewCycleSettingsSnapshot snapshot = ReviewCycleSettingsSnapshot.get(getSite());
+
+        return snapshot != null ? snapshot.getNotificationInterval() : NotificationInterval.MINUTE;
+    }
+
+    /**
+     * Checks whether this node should do the work of this run. In {@link ReviewCycleTaskExecutionMode#LEADER_LEASE}
+     * mode, this acquires or renews the cluster-wide lease. The default task host is preferred: other nodes wait
+     * briefly before taking over an expired lease so that it gets the first chance.
+     *
+     * @return {@code false} if another node is running the task.
+     */
+    private boolean acquireExecution() {
+
+        ReviewCycleTaskSettings taskSettings = getTaskSettings();
+
+        leaseLost = false;
+
+        if (taskSettings.getTaskExecutionMode() != ReviewCycleTaskExecutionMode.LEADER_LEASE) {
+            leaseToken = null;
+            return true;
+        }
+
+        String nodeId = DefaultTaskHost.getNodeId();
+        long ttlMillis = TimeUnit.SECONDS.toMillis(taskSettings.getLeaseTtlSeconds());
+        ReviewCycleTaskLease lease = ReviewCycleTaskLease.find(LEASE_NAME);
+
+        if (lease != null
+                && lease.isExpired()
+                && !nodeId.equals(lease.getHolder())
+                && !StringUtils.isEmpty(DefaultTaskHostSetting.getDefaultTaskHostValue())
+                && !DefaultTaskHost.isRunningOnTaskHost()) {
+
+            try {
+                Thread.sleep(PREFERRED_HOST_GRACE_MILLIS);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        leaseToken = ReviewCycleTaskLease.acquire(LEASE_NAME, nodeId, ttlMillis);
+
+        return leaseToken != null;
+    }
+
+    /**
+     * Returns the slice of the given sites assigned to this node among all live nodes.
+     *
+     * @param sites all sites to check.
+     * @return never {@code null}.
+     */
+    private List<Site> getShardSites(List<Site> sites) {
+
+        String nodeId = DefaultTaskHost.getNodeId();
+
+        ReviewCycleTaskShards.startHeartbeat();
+        ReviewCycleTaskShards.heartbeat(TimeUnit.SECONDS.toMillis(getTaskSettings().getLeaseTtlSeconds()));
+
+        List<String> nodeIds = ReviewCycleTaskShards.getLiveNodeIds();
+
+        if (!nodeIds.contains(nodeId)) {
+            nodeIds.add(nodeId);
         }
+
+        List<Site> assigned = ReviewCycleTaskShards.getAssignedSites(sites, nodeIds, nodeId);
+
+        LOGGER.debug("Review cycle due check assigned {} of {} sites across {} nodes",
+                assigned.size(), sites.size(), nodeIds.size());
+
+        return assigned;
+    }
+
+    /**
+     * Claims the given site for this node in sharded mode, so that a site moving between nodes while the cluster
+     * rebalances is not checked by both at once.
+     *
+     * @param value site to claim.
+     * @return {@code false} if another node is still checking the site.
+     */
+    private boolean claimSite(Site value) {
+
+        if (getTaskSettings().getTaskExecutionMode() != ReviewCycleTaskExecutionMode.SHARDED) {
+            return true;
+        }
+
+        Long token = ReviewCycleTaskLease.acquire(
+                getSiteLeaseName(value),
+                DefaultTaskHost.getNodeId(),
+                TimeUnit.SECONDS.toMillis(getTaskSettings().getLeaseTtlSeconds()));
+
+        if (token == null) {
+            return false;
+        }
+
+        siteLeaseTokens.put(value.getId(), token);
+        return true;
+    }
+
+    /**
+     * Renews the lease acquired by {@link #claimSite(Site)}, if any.
+     *
+     * @param value site being checked.
+     * @return {@code false} if the site has been claimed by another node.
+     */
+    private boolean renewSite(Site value) {
+
+        Long token = siteLeaseTokens.get(value.getId());
+
+        if (token == null) {
+            return true;
+        }
+
+        Long renewedToken = ReviewCycleTaskLease.renew(
+                getSiteLeaseName(value),
+                DefaultTaskHost.getNodeId(),
+                token,
+                TimeUnit.SECONDS.toMillis(getTaskSettings().getLeaseTtlSeconds()));
+
+        if (renewedToken != null) {
+            siteLeaseTokens.put(value.getId(), renewedToken);
+            return true;
+        }
+
+        LOGGER.warn("Review cycle site [{}] was claimed by another node, stopping its check", value.getName());
+        siteLeaseTokens.remove(value.getId());
+        return false;
+    }
+
+    /**
+     * Releases the lease acquired by {@link #claimSite(Site)}, if any, so that the node the site is assigned to next
+     * doesn't have to wait for it to expire.
+     *
+     * @param value site that has been checked.
+     */
+    private void releaseSite(Site value) {
+
+        Long token = siteLeaseTokens.remove(value.getId());
+
+        if (token == null) {
+            return;
+        }
+
+        try {
+            ReviewCycleTaskLease.release(getSiteLeaseName(value), DefaultTaskHost.getNodeId(), token);
+
+        } catch (RuntimeException e) {
+            LOGGER.debug("Unable to release review cycle site [{}]", value.getName(), e);
+        }
+    }
+
+    private String getSiteLeaseName(Site value) {
+        return LEASE_NAME + "/site/" + value.getId();
+    }
+
+    /**
+     * Renews the lease acquired by {@link #acquireExecution()}, if any.
+     *
+     * @return {@code false} if the lease has been taken over by another node.
+     */
+    private boolean renewExecution() {
+
+        // Once lost, the lease stays lost for the rest of the run, so that no other site or chunk is processed
+        if (leaseLost) {
+            return false;
+        }
+
+        Long token = leaseToken;
+
+        if (token == null) {
+            return true;
+        }
+
+        Long renewedToken = ReviewCycleTaskLease.renew(
+                LEASE_NAME,
+                DefaultTaskHost.getNodeId(),
+                token,
+                TimeUnit.SECONDS.toMillis(getTaskSettings().getLeaseTtlSeconds()));
+
+        if (renewedToken != null) {
+            leaseToken = renewedToken;
+            return true;
+        }
+
+        LOGGER.warn("Review cycle task lease was taken over by another node, stopping this run");
+        leaseLost = true;
+        leaseToken = null;
+        return false;
     }
 
     @Override
     protected DateTime calculateRunTime(DateTime currentTime) {
 
-        if (!DefaultTaskHost.isRunningOnTaskHost()) {
+        // With a lease, every node is scheduled and the lease decides which one does the work
+        if (getTaskSettings().getTaskExecutionMode() == ReviewCycleTaskExecutionMode.PINNED_HOST
+                && !DefaultTaskHost.isRunningOnTaskHost()) {
             // This will never run since this is in the future
             return currentTime.plusMinutes(2);
         }
 
-        return everyMinute(currentTime);
+        // Sites with a longer interval than the tightest one are skipped in processSite until theirs has passed
+        return getTightestInterval().getRunTime(currentTime);
     }
 
 }
\ No newline at end of file
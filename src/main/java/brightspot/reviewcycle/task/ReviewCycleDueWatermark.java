@@ -0,0 +1,94 @@
+package brightspot.reviewcycle.task;
+
+import java.util.Date;
+
+import com.psddev.cms.db.Site;
+import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Record;
+
+/**
+ * Remembers, per site, the last day for which {@link ReviewCycleDueRepeatingTask} completed a full scan of due
+ * content, and when its last run for that site started. A {@link ReviewCycleRecomputeTask} resets the watermark when
+ * it has rewritten next review dates, so that the next run scans the whole site again.
+ */
+public class ReviewCycleDueWatermark extends Record {
+
+    @Indexed
+    @Required
+    private Site site;
+
+    private Long lastCompletedDay;
+
+    private Date lastRunDate;
+
+    private Date resetDate;
+
+    public Site getSite() {
+        return site;
+    }
+
+    public void setSite(Site site) {
+        this.site = site;
+    }
+
+    /**
+     * @return UTC epoch day of the last completed full scan, or {@code null} if there has never been one.
+     */
+    public Long getLastCompletedDay() {
+        return lastCompletedDay;
+    }
+
+    public void setLastCompletedDay(Long lastCompletedDay) {
+        this.lastCompletedDay = lastCompletedDay;
+    }
+
+    public Date getLastRunDate() {
+        return lastRunDate;
+    }
+
+    public void setLastRunDate(Date lastRunDate) {
+        this.lastRunDate = lastRunDate;
+    }
+
+    /**
+     * @return when the watermark was last reset by a {@link ReviewCycleRecomputeTask}, or {@code null}.
+     */
+    public Date getResetDate() {
+        return resetDate;
+    }
+
+    public void setResetDate(Date resetDate) {
+        this.resetDate = resetDate;
+    }
+
+    /**
+     * Returns whether the watermark has been reset since the given date, such as during a run that started then.
+     *
+     * @param date nullable date to compare with.
+     */
+    public boolean isResetSince(Date date) {
+        return resetDate != null && (date == null || !resetDate.before(date));
+    }
+
+    /**
+     * Returns the watermark for the given site, or a new unsaved one if the site has never been checked.
+     *
+     * @param site site to find the watermark for.
+     * @return never {@code null}.
+     */
+    public static ReviewCycleDueWatermark findOrCreate(Site site) {
+
+        ReviewCycleDueWatermark watermark = Query.from(ReviewCycleDueWatermark.class)
+                .where("site = ?", site)
+                .master()
+                .noCache()
+                .first();
+
+        if (watermark == null) {
+            watermark = new ReviewCycleDueWatermark();
+            watermark.setSite(site);
+        }
+
+        return watermark;
+    }
+}
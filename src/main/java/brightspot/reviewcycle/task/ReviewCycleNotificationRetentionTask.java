@@ -0,0 +1,250 @@
+package brightspot.reviewcycle.task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import brightspot.reviewcycle.ReviewCycleSettings;
+import brightspot.reviewcycle.ReviewCycleSettingsSnapshot;
+import brightspot.reviewcycle.notification.ReviewCycleDueNotification;
+import com.psddev.cms.db.Site;
+import com.psddev.cms.tool.CmsTool;
+import com.psddev.dari.db.Predicate;
+import com.psddev.dari.db.PredicateParser;
+import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Singleton;
+import com.psddev.dari.util.RepeatingTask;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes {@link ReviewCycleDueNotification}s older than the configured retention, so that the lookups of
+ * {@link ReviewCycleDueRepeatingTask} only have to deal with recent notifications. Sites can override the global
+ * {@link ReviewCycleTaskSettings#getNotificationRetentionDays() retention} in their {@link ReviewCycleSettings}.
+ * Notifications are removed in batches with a pause in between, so that the database isn't flooded with deletes.
+ */
+public class ReviewCycleNotificationRetentionTask extends RepeatingTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReviewCycleNotificationRetentionTask.class);
+
+    private static final String LEASE_NAME = ReviewCycleNotificationRetentionTask.class.getName();
+
+    private static final long LEASE_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final long BATCH_PAUSE_MILLIS = 500;
+
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+
+    @Override
+    protected DateTime calculateRunTime(DateTime currentTime) {
+        return everyDay(currentTime);
+    }
+
+    @Override
+    protected void doRepeatingTask(DateTime runTime) {
+
+        if (!RUNNING.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            if (isEligible()) {
+                purge();
+            }
+
+        } finally {
+            RUNNING.set(false);
+        }
+    }
+
+    /**
+     * Only one node purges per day: the default task host in {@link ReviewCycleTaskExecutionMode#PINNED_HOST} mode,
+     * otherwise whichever node acquires the lease first.
+     */
+    private boolean isEligible() {
+
+        if (getTaskSettings().getTaskExecutionMode() == ReviewCycleTaskExecutionMode.PINNED_HOST) {
+            return DefaultTaskHost.isRunningOnTaskHost();
+        }
+
+        return ReviewCycleTaskLease.acquire(LEASE_NAME, DefaultTaskHost.getNodeId(), LEASE_TTL_MILLIS) != null;
+    }
+
+    /**
+     * Saves the notifications written before the owner was stored again, so that {@link ReviewCycleDueNotification}
+     * moves their content reference to the compact fields, including the owner that per-site retention matches on.
+     * Notifications whose content no longer exists stay without an owner, fall under the global retention, and are
+     * marked so that they aren't saved again on the next day.
+     */
+    private void migrateLegacy() {
+
+        int batchSize = getTaskSettings().getTaskChunkSize();
+        UUID lastId = null;
+        long migrated = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            Query<ReviewCycleDueNotification> query = Query.from(ReviewCycleDueNotification.class)
+                    .where("getOwnerId = missing and ownerUnresolved = missing");
+
+            if (lastId != null) {
+                query.and("_id > ?", lastId);
+            }
+
+            List<ReviewCycleDueNotification> batch = query
+                    .sortAscending("_id")
+                    .master()
+                    .noCache()
+                    .select(0, batchSize)
+                    .getItems();
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            try (ReviewCycleBatchWriter writer = new ReviewCycleBatchWriter(getTaskSettings().getWriteBatchSize())) {
+                for (ReviewCycleDueNotification notification : batch) {
+                    writer.write(notification, notification::save);
+                }
+
+                writer.flush();
+            }
+
+            migrated += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(BATCH_PAUSE_MILLIS);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (migrated > 0) {
+            LOGGER.info("Review cycle notification retention migrated {} legacy notifications", migrated);
+        }
+    }
+
+    private void purge() {
+
+        Integer globalDays = getTaskSettings().getNotificationRetentionDays();
+        Map<Site, Integer> siteDaysBySite = new LinkedHashMap<>();
+        List<UUID> overriddenSiteIds = new ArrayList<>();
+        long removed = 0;
+
+        for (Site site : Query.from(Site.class).selectAll()) {
+            ReviewCycleSettingsSnapshot settings = ReviewCycleSettingsSnapshot.get(site);
+
+            Integer siteDays = settings != null ? settings.getNotificationRetentionDays() : null;
+
+            if (siteDays != null && siteDays > 0) {
+                siteDaysBySite.put(site, siteDays);
+                overriddenSiteIds.add(site.getId());
+            }
+        }
+
+        // Only per-site retention needs the owner, the global retention covers notifications without one
+        if (!siteDaysBySite.isEmpty()) {
+            migrateLegacy();
+        }
+
+        // Sites with their own retention
+        for (Map.Entry<Site, Integer> entry : siteDaysBySite.entrySet()) {
+            removed += purge(
+                    PredicateParser.Static.parse("getOwnerId = ?", entry.getKey().getId()),
+                    entry.getValue(),
+                    "site [" + entry.getKey().getName() + "]");
+        }
+
+        // Everything else, including notifications written before the owner was stored
+        if (globalDays != null) {
+            removed += purge(
+                    overriddenSiteIds.isEmpty()
+                            ? null
+                            : PredicateParser.Static.parse(
+                                    "getOwnerId = missing or getOwnerId != ?",
+                                    overriddenSiteIds),
+                    globalDays,
+                    "global");
+        }
+
+        LOGGER.info("Review cycle notification retention removed {} notifications", removed);
+    }
+
+    /**
+     * Removes the notifications matching the given predicate that were published more than the given number of days
+     * ago.
+     *
+     * @param predicate nullable predicate to restrict the notifications to.
+     * @param days retention in days.
+     * @param policy name of the policy, for logging.
+     * @return number of notifications removed.
+     */
+    private long purge(Predicate predicate, int days, String policy) {
+
+        int batchSize = getTaskSettings().getTaskChunkSize();
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+        long removed = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            Query<ReviewCycleDueNotification> query = Query.from(ReviewCycleDueNotification.class)
+                    .where("publishedAt < ?", cutoff);
+
+            if (predicate != null) {
+                query.and(predicate);
+            }
+
+            List<ReviewCycleDueNotification> batch = query
+                    .master()
+                    .noCache()
+                    .select(0, batchSize)
+                    .getItems();
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            long deleted;
+
+            try (ReviewCycleBatchWriter writer = new ReviewCycleBatchWriter(getTaskSettings().getWriteBatchSize())) {
+                for (ReviewCycleDueNotification notification : batch) {
+                    writer.write(notification, notification::delete);
+                }
+
+                writer.flush();
+                deleted = writer.getCommitted();
+            }
+
+            removed += deleted;
+
+            // Notifications that can't be deleted would be selected again, so stop once a batch makes no progress
+            if (batch.size() < batchSize || deleted == 0) {
+                break;
+            }
+
+            try {
+                Thread.sleep(BATCH_PAUSE_MILLIS);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        LOGGER.debug("Review cycle notification retention removed {} notifications for {} policy", removed, policy);
+
+        return removed;
+    }
+
+    private ReviewCycleTaskSettings getTaskSettings() {
+        return Singleton.getInstance(CmsTool.class).as(ReviewCycleTaskSettings.class);
+    }
+}
@@ -0,0 +1,184 @@
+package brightspot.reviewcycle.task;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Record;
+
+/**
+ * Progress of a {@link ReviewCycleRecomputeTask} through the content of a single type, saved after every batch so
+ * that a job started again for the same type and settings continues after the last processed content. The progress
+ * is removed once the type is completed. It also records how the job was started, so that a job interrupted by a
+ * restart can be {@link ReviewCycleRecomputeTask#resumeInterrupted() resumed}.
+ */
+public class ReviewCycleRecomputeProgress extends Record {
+
+    @Indexed(unique = true)
+    @Required
+    private String name;
+
+    private UUID lastContentId;
+
+    private long processed;
+
+    private long updated;
+
+    private UUID siteId;
+
+    private UUID typeId;
+
+    private boolean missingOnly;
+
+    private long settingsVersion;
+
+    private Integer parallelism;
+
+    private double writesPerSecond;
+
+    @Indexed
+    private Date updatedAt;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public UUID getLastContentId() {
+        return lastContentId;
+    }
+
+    public void setLastContentId(UUID lastContentId) {
+        this.lastContentId = lastContentId;
+    }
+
+    /**
+     * @return number of content checked so far.
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    /**
+     * @return number of content whose next review date was written so far.
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public UUID getSiteId() {
+        return siteId;
+    }
+
+    public void setSiteId(UUID siteId) {
+        this.siteId = siteId;
+    }
+
+    public UUID getTypeId() {
+        return typeId;
+    }
+
+    public void setTypeId(UUID typeId) {
+        this.typeId = typeId;
+    }
+
+    public boolean isMissingOnly() {
+        return missingOnly;
+    }
+
+    public void setMissingOnly(boolean missingOnly) {
+        this.missingOnly = missingOnly;
+    }
+
+    /**
+     * @return version of the site settings the job was started for.
+     */
+    public long getSettingsVersion() {
+        return settingsVersion;
+    }
+
+    public void setSettingsVersion(long settingsVersion) {
+        this.settingsVersion = settingsVersion;
+    }
+
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public double getWritesPerSecond() {
+        return writesPerSecond;
+    }
+
+    public void setWritesPerSecond(double writesPerSecond) {
+        this.writesPerSecond = writesPerSecond;
+    }
+
+    /**
+     * @return when the progress was last saved by a running job.
+     */
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String getLabel() {
+        return name;
+    }
+
+    /**
+     * Returns the named progress directly from the database.
+     *
+     * @param name unique name of the job and type.
+     * @return never {@code null}.
+     */
+    public static ReviewCycleRecomputeProgress findOrCreate(String name) {
+
+        ReviewCycleRecomputeProgress progress = Query.from(ReviewCycleRecomputeProgress.class)
+                .where("name = ?", name)
+                .master()
+                .noCache()
+                .first();
+
+        if (progress == null) {
+            progress = new ReviewCycleRecomputeProgress();
+            progress.setName(name);
+        }
+
+        return progress;
+    }
+
+    /**
+     * Returns the progress that hasn't been saved since the given date directly from the database, which belongs to
+     * jobs that have stopped without completing.
+     *
+     * @param before date the progress must not have been saved since.
+     * @return never {@code null}.
+     */
+    public static List<ReviewCycleRecomputeProgress> findStale(Date before) {
+        return Query.from(ReviewCycleRecomputeProgress.class)
+                .where("updatedAt = missing or updatedAt < ?", before)
+                .master()
+                .noCache()
+                .selectAll();
+    }
+}
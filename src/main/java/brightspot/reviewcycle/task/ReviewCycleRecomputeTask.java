@@ -0,0 +1,385 @@
+package brightspot.reviewcycle.task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import brightspot.reviewcycle.HasReviewCycle;
+import brightspot.reviewcycle.ReviewCycleContentModification;
+import brightspot.reviewcycle.ReviewCycleSettingsSnapshot;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.psddev.cms.db.Content;
+import com.psddev.cms.db.Site;
+import com.psddev.cms.tool.CmsTool;
+import com.psddev.dari.db.ObjectType;
+import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Recordable;
+import com.psddev.dari.db.Singleton;
+import com.psddev.dari.db.State;
+import com.psddev.dari.util.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recalculates and writes the indexed next review date of the content of a site, limited to the given types, so that
+ * a change to the content type maps in {@link brightspot.reviewcycle.ReviewCycleSiteSettings} takes effect without
+ * waiting for each content to be saved again.
+ *
+ * Content is processed in ID order in batches of {@link ReviewCycleTaskSettings#getTaskChunkSize()}, each split across
+ * {@link ReviewCycleTaskSettings#getTaskParallelism()} workers, with a short pause between batches. Progress is saved
+ * after every batch as a {@link ReviewCycleRecomputeProgress}, so a job started again for the same settings continues
+ * where the previous one stopped. Jobs stopped by a restart are started again by {@link #resumeInterrupted()}, which
+ * {@link ReviewCycleDueRepeatingTask} calls periodically.
+ *
+ * The same job also backfills content that has never had a next review date indexed, such as content saved before its
+ * type was mapped, with a caller-provided concurrency and rate limit.
+ */
+public class ReviewCycleRecomputeTask extends Task {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReviewCycleRecomputeTask.class);
+
+    private static final String EXECUTOR = "Review Cycle";
+
+    private static final long BATCH_PAUSE_MILLIS = 100;
+
+    private static final String RESUME_LEASE_NAME = ReviewCycleRecomputeTask.class.getName() + "/resume";
+
+    private static final long RESUME_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final long STALE_PROGRESS_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private final Site site;
+
+    private final Collection<UUID> typeIds;
+
+    private final boolean missingOnly;
+
+    private final Integer parallelism;
+
+    private final double writesPerSecond;
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * @param site site whose content is recalculated.
+     * @param typeIds IDs of the types whose content is recalculated.
+     */
+    public ReviewCycleRecomputeTask(Site site, Collection<UUID> typeIds) {
+        this(site, typeIds, false, null, 0);
+    }
+
+    /**
+     * @param site site whose content is recalculated.
+     * @param typeIds IDs of the types whose content is recalculated.
+     * @param missingOnly {@code true} to only backfill content without an indexed next review date.
+     * @param parallelism nullable number of concurrent writers, instead of the configured task parallelism.
+     * @param writesPerSecond maximum number of content written per second, or {@code 0} for no limit.
+     */
+    public ReviewCycleRecomputeTask(
+            Site site,
+            Collection<UUID> typeIds,
+            boolean missingOnly,
+            Integer parallelism,
+            double writesPerSecond) {
+
+        super(EXECUTOR, (missingOnly ? "Backfill" : "Recalculate") + " next review dates for " + site.getName());
+        this.site = site;
+        this.typeIds = new ArrayList<>(typeIds);
+        this.missingOnly = missingOnly;
+        this.parallelism = parallelism;
+        this.writesPerSecond = writesPerSecond;
+        this.rateLimiter = writesPerSecond > 0 ? RateLimiter.create(writesPerSecond) : null;
+    }
+
+    /**
+     * Returns a query of the content of the given type in the given site that has no indexed next review date.
+     *
+     * @param site site of the content.
+     * @param type type of the content.
+     * @return never {@code null}.
+     */
+    public static Query<Object> newMissingQuery(Site site, ObjectType type) {
+        return Query.fromType(type)
+                .where("cms.site.owner = ?", site)
+                .and(ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME + " = missing");
+    }
+
+    /**
+     * Starts again the jobs whose progress hasn't been saved for a while, such as jobs stopped by a restart. Progress
+     * of settings that have changed since is removed instead, since the job started for the change covers it. Only
+     * one node checks per {@link #RESUME_INTERVAL_MILLIS interval}.
+     */
+    public static void resumeInterrupted() {
+
+        // The lease is never renewed, so it only becomes available again once the interval has passed
+        ReviewCycleTaskLease lease = ReviewCycleTaskLease.find(RESUME_LEASE_NAME);
+
+        if (lease != null && !lease.isExpired()) {
+            return;
+        }
+
+        if (ReviewCycleTaskLease.acquire(RESUME_LEASE_NAME, DefaultTaskHost.getNodeId(), RESUME_INTERVAL_MILLIS)
+                == null) {
+            return;
+        }
+
+        for (ReviewCycleRecomputeProgress progress : ReviewCycleRecomputeProgress.findStale(
+                new Date(System.currentTimeMillis() - STALE_PROGRESS_MILLIS))) {
+
+            Site site = progress.getSiteId() != null
+                    ? Query.from(Site.class).where("_id = ?", progress.getSiteId()).first()
+                    : null;
+            ReviewCycleSettingsSnapshot snapshot = site != null ? ReviewCycleSettingsSnapshot.get(site) : null;
+
+            if (snapshot == null
+                    || progress.getTypeId() == null
+                    || snapshot.getVersion() != progress.getSettingsVersion()) {
+                progress.delete();
+                continue;
+            }
+
+            // Keeps the job from being started again before its first batch is done
+            progress.setUpdatedAt(new Date());
+            progress.saveImmediately();
+
+            LOGGER.info("Resuming [{}] after content [{}]", progress.getName(), progress.getLastContentId());
+
+            new ReviewCycleRecomputeTask(
+                    site,
+                    Collections.singletonList(progress.getTypeId()),
+                    progress.isMissingOnly(),
+                    progress.getParallelism(),
+                    progress.getWritesPerSecond()).submit();
+        }
+    }
+
+    @Override
+    protected void doTask() throws Exception {
+
+        ReviewCycleSettingsSnapshot snapshot = ReviewCycleSettingsSnapshot.get(site);
+        long version = snapshot != null ? snapshot.getVersion() : 0L;
+        long updated = 0;
+
+        for (UUID typeId : typeIds) {
+            ObjectType type = ObjectType.getInstance(typeId);
+
+            if (type == null || !shouldContinue()) {
+                continue;
+            }
+
+            String progressName = getClass().getName()
+                    + (missingOnly ? "/missing/" : "/")
+                    + site.getId() + "/" + typeId + "/" + version;
+
+            ReviewCycleRecomputeProgress progress = ReviewCycleRecomputeProgress.findOrCreate(progressName);
+
+            progress.setSiteId(site.getId());
+            progress.setTypeId(typeId);
+            progress.setMissingOnly(missingOnly);
+            progress.setSettingsVersion(version);
+            progress.setParallelism(parallelism);
+            progress.setWritesPerSecond(writesPerSecond);
+
+            updated += recompute(type, progress);
+        }
+
+        if (!shouldContinue()) {
+            return;
+        }
+
+        // Due content may have changed without being updated, so the next due check has to scan the whole site
+        ReviewCycleDueWatermark watermark = ReviewCycleDueWatermark.findOrCreate(site);
+
+        if (!watermark.getState().isNew()) {
+            watermark.setLastCompletedDay(null);
+            watermark.setResetDate(new Date());
+            watermark.saveImmediately();
+        }
+
+        LOGGER.info("Recalculated next review dates for site [{}], updated {} content", site.getName(), updated);
+    }
+
+    private long recompute(ObjectType type, ReviewCycleRecomputeProgress progress) throws InterruptedException {
+
+        ReviewCycleTaskSettings taskSettings = Singleton.getInstance(CmsTool.class).as(ReviewCycleTaskSettings.class);
+        int batchSize = taskSettings.getTaskChunkSize();
+        int parallelism = this.parallelism != null && this.parallelism > 0
+                ? this.parallelism
+                : taskSettings.getTaskParallelism();
+
+        long total = newQuery(type).count();
+        setProgressTotal(total);
+
+        ExecutorService executor = parallelism > 1
+                ? Executors.newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+                        .setNameFormat("review-cycle-recompute-%d")
+                        .setDaemon(true)
+                        .build())
+                : null;
+
+        try {
+            while (shouldContinue()) {
+                Query<Object> query = newQuery(type);
+
+                if (progress.getLastContentId() != null) {
+                    query.and("_id > ?", progress.getLastContentId());
+                }
+
+                List<Object> batch = query
+                        .sortAscending("_id")
+                        .select(0, batchSize)
+                        .getItems();
+
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                progress.setUpdated(progress.getUpdated() + write(batch, executor, parallelism));
+                progress.setProcessed(progress.getProcessed() + batch.size());
+                progress.setLastContentId(State.getInstance(batch.get(batch.size() - 1)).getId());
+                progress.setUpdatedAt(new Date());
+                progress.saveImmediately();
+
+                setProgressIndex(progress.getProcessed());
+                setProgress(type.getDisplayName() + ": " + progress.getProcessed() + " of " + total);
+
+                if (batch.size() < batchSize) {
+                    break;
+                }
+
+                Thread.sleep(BATCH_PAUSE_MILLIS);
+            }
+
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        LOGGER.info(
+                "Recalculated next review dates of [{}] in site [{}], checked {} and updated {} content",
+                type.getDisplayName(),
+                site.getName(),
+                progress.getProcessed(),
+                progress.getUpdated());
+
+        if (shouldContinue() && !progress.getState().isNew()) {
+            progress.delete();
+        }
+
+        return progress.getUpdated();
+    }
+
+    private Query<Object> newQuery(ObjectType type) {
+        return (missingOnly ? newMissingQuery(site, type) : Query.fromType(type).where("cms.site.owner = ?", site))
+                .master()
+                .noCache();
+    }
+
+    /**
+     * Writes the content of the given batch whose next review date has changed, split across the workers.
+     *
+     * @return number of content written.
+     */
+    private int write(List<Object> batch, ExecutorService executor, int parallelism) throws InterruptedException {
+
+        if (executor == null) {
+            return write(batch);
+        }
+
+        int sliceSize = (batch.size() + parallelism - 1) / parallelism;
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (int from = 0; from < batch.size(); from += sliceSize) {
+            List<Object> slice = batch.subList(from, Math.min(from + sliceSize, batch.size()));
+            futures.add(executor.submit(() -> write(slice)));
+        }
+
+        int written = 0;
+
+        for (Future<Integer> future : futures) {
+            try {
+                written += future.get();
+
+            } catch (ExecutionException e) {
+                LOGGER.warn("Unable to recalculate next review dates in site [" + site.getName() + "]!", e.getCause());
+            }
+        }
+
+        return written;
+    }
+
+    private int write(List<Object> items) {
+
+        ReviewCycleTaskSettings taskSettings = Singleton.getInstance(CmsTool.class).as(ReviewCycleTaskSettings.class);
+        Map<UUID, Date> updateDates = new LinkedHashMap<>();
+
+        for (Object item : items) {
+            if (!(item instanceof Recordable) || !((Recordable) item).isInstantiableTo(HasReviewCycle.class)) {
+                continue;
+            }
+
+            ReviewCycleContentModification modification = ((Recordable) item)
+                    .as(ReviewCycleContentModification.class);
+
+            if (!Objects.equals(modification.getNextReviewDate(), modification.getIndexedNextReviewDate())) {
+                updateDates.put(State.getInstance(item).getId(), getUpdateDate(item));
+            }
+        }
+
+        if (updateDates.isEmpty()) {
+            return 0;
+        }
+
+        int written = 0;
+
+        try (ReviewCycleBatchWriter writer = new ReviewCycleBatchWriter(taskSettings.getWriteBatchSize())) {
+
+            // Content saved since the batch was read is written from its current state, so that edits aren't lost
+            for (Object item : Query.fromAll()
+                    .where("_id = ?", updateDates.keySet())
+                    .master()
+                    .noCache()
+                    .selectAll()) {
+
+                // Saving the content again has already recalculated its next review date
+                if (!Objects.equals(updateDates.get(State.getInstance(item).getId()), getUpdateDate(item))) {
+                    continue;
+                }
+
+                ReviewCycleContentModification modification = ((Recordable) item)
+                        .as(ReviewCycleContentModification.class);
+
+                modification.setNextReviewDate(modification.getNextReviewDate());
+
+                if (rateLimiter != null) {
+                    rateLimiter.acquire();
+                }
+
+                // Only the derived date changes, so the save hooks of the content don't need to run again
+                writer.write(item, modification.getState()::saveUnsafely);
+                written++;
+            }
+
+            writer.flush();
+        }
+
+        return written;
+    }
+
+    private static Date getUpdateDate(Object item) {
+        return State.getInstance(item).as(Content.ObjectModification.class).getUpdateDate();
+    }
+}
@@ -0,0 +1,93 @@
+package brightspot.reviewcycle.task;
+
+import java.util.UUID;
+
+import com.psddev.cms.db.Site;
+import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Record;
+
+/**
+ * Progress of {@link ReviewCycleDueRepeatingTask} within a site, saved after every chunk so that a run that is
+ * interrupted resumes from the last processed content instead of rescanning the whole site. The checkpoint is removed
+ * once the site is completed.
+ */
+public class ReviewCycleTaskCheckpoint extends Record {
+
+    @Indexed
+    @Required
+    private Site site;
+
+    private long day;
+
+    private String phase;
+
+    private UUID lastContentId;
+
+    public Site getSite() {
+        return site;
+    }
+
+    public void setSite(Site site) {
+        this.site = site;
+    }
+
+    /**
+     * @return UTC epoch day of the run this checkpoint belongs to.
+     */
+    public long getDay() {
+        return day;
+    }
+
+    public void setDay(long day) {
+        this.day = day;
+    }
+
+    /**
+     * @return the content map (or overrides) being processed when the checkpoint was saved.
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public UUID getLastContentId() {
+        return lastContentId;
+    }
+
+    public void setLastContentId(UUID lastContentId) {
+        this.lastContentId = lastContentId;
+    }
+
+    /**
+     * Returns the checkpoint of the given site for the given day. Checkpoints left over from earlier days are reset,
+     * since the due content has changed since.
+     *
+     * @param site site to find the checkpoint for.
+     * @param day UTC epoch day of the current run.
+     * @return never {@code null}.
+     */
+    public static ReviewCycleTaskCheckpoint findOrCreate(Site site, long day) {
+
+        ReviewCycleTaskCheckpoint checkpoint = Query.from(ReviewCycleTaskCheckpoint.class)
+                .where("site = ?", site)
+                .master()
+                .noCache()
+                .first();
+
+        if (checkpoint == null) {
+            checkpoint = new ReviewCycleTaskCheckpoint();
+            checkpoint.setSite(site);
+
+        } else if (checkpoint.getDay() != day) {
+            checkpoint.setPhase(null);
+            checkpoint.setLastContentId(null);
+        }
+
+        checkpoint.setDay(day);
+
+        return checkpoint;
+    }
+}
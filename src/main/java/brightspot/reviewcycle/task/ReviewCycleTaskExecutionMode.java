@@ -0,0 +1,26 @@
+package brightspot.reviewcycle.task;
+
+/**
+ * Enum used in {@link ReviewCycleTaskSettings} for which nodes run {@link ReviewCycleDueRepeatingTask}.
+ */
+public enum ReviewCycleTaskExecutionMode {
+
+    PINNED_HOST("Default task host only"),
+    LEADER_LEASE("One node at a time, preferring the default task host"),
+    SHARDED("Sites split across all nodes");
+
+    private final String label;
+
+    ReviewCycleTaskExecutionMode(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+}
@@ -0,0 +1,201 @@
+package brightspot.reviewcycle.task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Database-backed lease that lets exactly one node at a time run a task across the cluster. The holder renews the
+ * lease while it works; if it stops renewing, any other node can take the lease over once it expires. Every write
+ * increments the fencing token, so a previous holder can detect that it has lost the lease before writing anything
+ * else, and a renewal can't put back a lease that another node has just taken over.
+ */
+public class ReviewCycleTaskLease extends Record {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReviewCycleTaskLease.class);
+
+    @Indexed(unique = true)
+    @Required
+    private String name;
+
+    private String holder;
+
+    private long fencingToken;
+
+    private Date expiresAt;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public void setFencingToken(long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expiresAt == null || !expiresAt.after(new Date());
+    }
+
+    @Override
+    public String getLabel() {
+        return name;
+    }
+
+    /**
+     * Returns the current state of the named lease directly from the database.
+     *
+     * @param name lease name.
+     * @return {@code null} if the lease has never been acquired.
+     */
+    public static ReviewCycleTaskLease find(String name) {
+        return Query.from(ReviewCycleTaskLease.class)
+                .where("name = ?", name)
+                .master()
+                .noCache()
+                .first();
+    }
+
+    /**
+     * Acquires or renews the named lease for the given holder. The fencing token is incremented atomically, and the
+     * lease is only held if the stored token is exactly one more than the one that was read, so that of several nodes
+     * writing the lease at the same time, at most one ends up holding it.
+     *
+     * @param name lease name.
+     * @param holder unique ID of the node acquiring the lease.
+     * @param ttlMillis how long the lease is held without being renewed.
+     * @return fencing token of the held lease, or {@code null} if another node holds it.
+     */
+    public static Long acquire(String name, String holder, long ttlMillis) {
+
+        ReviewCycleTaskLease lease = find(name);
+
+        if (lease == null) {
+            lease = new ReviewCycleTaskLease();
+
+            // Concurrent creations of the same lease write the same row instead of racing on the unique name
+            lease.getState().setId(UUID.nameUUIDFromBytes((ReviewCycleTaskLease.class.getName() + "/" + name)
+                    .getBytes(StandardCharsets.UTF_8)));
+            lease.setName(name);
+
+            try {
+                lease.saveImmediately();
+
+            } catch (RuntimeException e) {
+                LOGGER.debug("Unable to create lease [{}]", name, e);
+                return null;
+            }
+
+        } else if (!holder.equals(lease.getHolder()) && !lease.isExpired()) {
+            return null;
+        }
+
+        lease.setHolder(holder);
+
+        return write(lease, new Date(System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Writes the given lease with the given expiry, incrementing its fencing token atomically, and verifies that the
+     * stored lease is exactly the one written. Every write increments the token, so if another node writes the lease
+     * at the same time, the token ends up past the expected one and neither write is considered successful.
+     *
+     * @return new fencing token, or {@code null} if another node wrote the lease at the same time.
+     */
+    private static Long write(ReviewCycleTaskLease lease, Date expiresAt) {
+
+        long expectedToken = lease.getFencingToken() + 1;
+
+        lease.setExpiresAt(expiresAt);
+        lease.getState().incrementAtomically("fencingToken", 1);
+
+        try {
+            lease.saveImmediately();
+
+        } catch (RuntimeException e) {
+            // Another node created or took over the lease at the same time
+            LOGGER.debug("Unable to write lease [{}]", lease.getName(), e);
+            return null;
+        }
+
+        ReviewCycleTaskLease stored = find(lease.getName());
+
+        return stored != null
+                && lease.getHolder().equals(stored.getHolder())
+                && stored.getFencingToken() == expectedToken
+                ? expectedToken
+                : null;
+    }
+
+    /**
+     * Extends the named lease if it is still held with the given fencing token. Like {@link #acquire}, the renewal
+     * increments the token, so that it can't silently overwrite a takeover by another node.
+     *
+     * @param name lease name.
+     * @param holder unique ID of the node holding the lease.
+     * @param fencingToken token returned when the lease was last acquired or renewed.
+     * @param ttlMillis how long the lease is held without being renewed.
+     * @return new fencing token, or {@code null} if the lease has been taken over by another node.
+     */
+    public static Long renew(String name, String holder, long fencingToken, long ttlMillis) {
+
+        ReviewCycleTaskLease lease = find(name);
+
+        if (lease == null
+                || !holder.equals(lease.getHolder())
+                || lease.getFencingToken() != fencingToken) {
+            return null;
+        }
+
+        return write(lease, new Date(System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Releases the named lease if it is still held with the given fencing token, so that another node can acquire it
+     * right away instead of waiting for it to expire.
+     *
+     * @param name lease name.
+     * @param holder unique ID of the node holding the lease.
+     * @param fencingToken token returned when the lease was last acquired or renewed.
+     */
+    public static void release(String name, String holder, long fencingToken) {
+
+        ReviewCycleTaskLease lease = find(name);
+
+        if (lease == null
+                || !holder.equals(lease.getHolder())
+                || lease.getFencingToken() != fencingToken) {
+            return;
+        }
+
+        write(lease, new Date());
+    }
+}
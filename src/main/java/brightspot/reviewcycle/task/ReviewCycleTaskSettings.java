@@ -0,0 +1,139 @@
+package brightspot.reviewcycle.task;
+
+import brightspot.reviewcycle.ReviewCycleSiteSettings;
+import com.psddev.cms.db.ToolUi;
+import com.psddev.cms.tool.CmsTool;
+import com.psddev.cms.ui.form.Note;
+import com.psddev.cms.ui.form.Placeholder;
+import com.psddev.dari.db.Modification;
+import com.psddev.dari.db.Recordable;
+
+/**
+ * Tuning options for {@link ReviewCycleDueRepeatingTask}, shown next to the default task host in the CMS tab.
+ */
+@Recordable.FieldInternalNamePrefix("reviewcycle.")
+public class ReviewCycleTaskSettings extends Modification<CmsTool> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    public static final int DEFAULT_PARALLELISM = 1;
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 100;
+    public static final int DEFAULT_LEASE_TTL_SECONDS = 180;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Placeholder("Default task host only")
+    @Note("Which nodes run the review cycle due task.")
+    private ReviewCycleTaskExecutionMode taskExecutionMode;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Minimum(30)
+    @Placeholder("180")
+    @Note("Seconds after which another node takes over the task if the node running it stops responding.")
+    private Integer leaseTtlSeconds;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Minimum(1)
+    @Placeholder("500")
+    @Note("Number of due items processed together when checking for and writing notifications.")
+    private Integer taskChunkSize;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Minimum(1)
+    @Placeholder("1")
+    @Note("Maximum number of sites checked for due content at the same time.")
+    private Integer taskParallelism;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Minimum(1)
+    @Placeholder("100")
+    @Note("Number of notification writes committed together in one transaction.")
+    private Integer writeBatchSize;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Note("When enabled, due content is fully scanned once per day and later runs on the same day only check content updated since the previous run.")
+    private boolean incrementalScan;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Note("When enabled, the ID of each daily notification is derived from its content and day, so notifications are written without first looking up the ones already sent today.")
+    private boolean deterministicNotificationIds;
+
+    @ToolUi.Cluster(ReviewCycleSiteSettings.CLUSTER)
+    @ToolUi.Tab(ReviewCycleSiteSettings.TAB)
+    @Minimum(1)
+    @Placeholder("Keep forever")
+    @Note("Number of days after which review cycle notifications are removed. Sites can override this in their review cycle settings.")
+    private Integer notificationRetentionDays;
+
+    public ReviewCycleTaskExecutionMode getTaskExecutionMode() {
+        return taskExecutionMode != null ? taskExecutionMode : ReviewCycleTaskExecutionMode.PINNED_HOST;
+    }
+
+    public void setTaskExecutionMode(ReviewCycleTaskExecutionMode taskExecutionMode) {
+        this.taskExecutionMode = taskExecutionMode;
+    }
+
+    public int getLeaseTtlSeconds() {
+        return leaseTtlSeconds != null && leaseTtlSeconds > 0 ? leaseTtlSeconds : DEFAULT_LEASE_TTL_SECONDS;
+    }
+
+    public void setLeaseTtlSeconds(Integer leaseTtlSeconds) {
+        this.leaseTtlSeconds = leaseTtlSeconds;
+    }
+
+    public int getTaskChunkSize() {
+        return taskChunkSize != null && taskChunkSize > 0 ? taskChunkSize : DEFAULT_CHUNK_SIZE;
+    }
+
+    public void setTaskChunkSize(Integer taskChunkSize) {
+        this.taskChunkSize = taskChunkSize;
+    }
+
+    public int getTaskParallelism() {
+        return taskParallelism != null && taskParallelism > 0 ? taskParallelism : DEFAULT_PARALLELISM;
+    }
+
+    public void setTaskParallelism(Integer taskParallelism) {
+        this.taskParallelism = taskParallelism;
+    }
+
+    public int getWriteBatchSize() {
+        return writeBatchSize != null && writeBatchSize > 0 ? writeBatchSize : DEFAULT_WRITE_BATCH_SIZE;
+    }
+
+    public void setWriteBatchSize(Integer writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    public boolean isIncrementalScan() {
+        return incrementalScan;
+    }
+
+    public void setIncrementalScan(boolean incrementalScan) {
+        this.incrementalScan = incrementalScan;
+    }
+
+    public boolean isDeterministicNotificationIds() {
+        return deterministicNotificationIds;
+    }
+
+    public void setDeterministicNotificationIds(boolean deterministicNotificationIds) {
+        this.deterministicNotificationIds = deterministicNotificationIds;
+    }
+
+    /**
+     * @return {@code null} if notifications are kept forever.
+     */
+    public Integer getNotificationRetentionDays() {
+        return notificationRetentionDays != null && notificationRetentionDays > 0 ? notificationRetentionDays : null;
+    }
+
+    public void setNotificationRetentionDays(Integer notificationRetentionDays) {
+        this.notificationRetentionDays = notificationRetentionDays;
+    }
+}
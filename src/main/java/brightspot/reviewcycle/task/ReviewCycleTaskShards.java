@@ -0,0 +1,153 @@
+package brightspot.reviewcycle.task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.psddev.cms.db.Site;
+import com.psddev.cms.tool.CmsTool;
+import com.psddev.dari.db.Query;
+import com.psddev.dari.db.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits sites across the nodes running {@link ReviewCycleDueRepeatingTask} in
+ * {@link ReviewCycleTaskExecutionMode#SHARDED} mode. Each node keeps a heartbeat {@link ReviewCycleTaskLease} alive
+ * in the background, and sites are assigned to the live nodes with a consistent hash ring, so only the sites of a
+ * node that joins or leaves move to another node.
+ */
+final class ReviewCycleTaskShards {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReviewCycleTaskShards.class);
+
+    private static final String NODE_LEASE_PREFIX = ReviewCycleDueRepeatingTask.class.getName() + "/node/";
+
+    private static final int VIRTUAL_NODES = 64;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    private ReviewCycleTaskShards() {
+    }
+
+    /**
+     * Starts the background heartbeat of this node if it isn't running yet. The heartbeat is only written while the
+     * task is in sharded mode.
+     */
+    static void startHeartbeat() {
+
+        if (!STARTED.compareAndSet(false, true)) {
+            return;
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("review-cycle-node-heartbeat")
+                .setDaemon(true)
+                .build());
+
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                ReviewCycleTaskSettings taskSettings = Singleton.getInstance(CmsTool.class)
+                        .as(ReviewCycleTaskSettings.class);
+
+                if (taskSettings.getTaskExecutionMode() == ReviewCycleTaskExecutionMode.SHARDED) {
+                    heartbeat(TimeUnit.SECONDS.toMillis(taskSettings.getLeaseTtlSeconds()));
+                }
+
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to write review cycle node heartbeat!", e);
+            }
+        }, 0, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes the heartbeat of this node.
+     *
+     * @param ttlMillis how long this node is considered alive without another heartbeat.
+     */
+    static void heartbeat(long ttlMillis) {
+        String nodeId = DefaultTaskHost.getNodeId();
+        ReviewCycleTaskLease.acquire(NODE_LEASE_PREFIX + nodeId, nodeId, ttlMillis);
+    }
+
+    /**
+     * Returns the IDs of all nodes with a live heartbeat, removing the heartbeats of nodes that have left.
+     *
+     * @return never {@code null}.
+     */
+    static List<String> getLiveNodeIds() {
+
+        List<String> nodeIds = new ArrayList<>();
+
+        for (ReviewCycleTaskLease lease : Query.from(ReviewCycleTaskLease.class)
+                .where("name startsWith ?", NODE_LEASE_PREFIX)
+                .master()
+                .noCache()
+                .selectAll()) {
+
+            if (!lease.isExpired()) {
+                nodeIds.add(lease.getHolder());
+
+            } else if (lease.getExpiresAt() == null
+                    || System.currentTimeMillis() - lease.getExpiresAt().getTime() > TimeUnit.DAYS.toMillis(1)) {
+                lease.delete();
+            }
+        }
+
+        return nodeIds;
+    }
+
+    /**
+     * Returns the sites assigned to the given node.
+     *
+     * @param sites all sites.
+     * @param nodeIds IDs of all live nodes.
+     * @param nodeId ID of the node to return the sites for.
+     * @return never {@code null}.
+     */
+    static List<Site> getAssignedSites(List<Site> sites, List<String> nodeIds, String nodeId) {
+
+        TreeMap<Long, String> ring = new TreeMap<>();
+
+        for (String id : nodeIds) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(id + "#" + i), id);
+            }
+        }
+
+        if (ring.isEmpty()) {
+            return sites;
+        }
+
+        List<Site> assigned = new ArrayList<>();
+
+        for (Site site : sites) {
+            Map.Entry<Long, String> owner = ring.ceilingEntry(hash(site.getId().toString()));
+
+            if (owner == null) {
+                owner = ring.firstEntry();
+            }
+
+            if (nodeId.equals(owner.getValue())) {
+                assigned.add(site);
+            }
+        }
+
+        return assigned;
+    }
+
+    private static long hash(String value) {
+        return HASH.hashString(value, StandardCharsets.UTF_8).asLong();
+    }
+}
@@ -15,14 +15,11 @@ import java.util.stream.Collectors;
 
 import brightspot.reviewcycle.HasReviewCycle;
 import brightspot.reviewcycle.ReviewCycleContentModification;
-import brightspot.reviewcycle.ReviewCycleContentTypeMap;
-import brightspot.reviewcycle.ReviewCycleSettings;
-import brightspot.reviewcycle.ReviewCycleSiteSettings;
+import brightspot.reviewcycle.ReviewCycleSettingsSnapshot;
 import com.google.common.collect.ImmutableMap;
 import com.psddev.cms.db.Content;
 import com.psddev.cms.db.Directory;
 import com.psddev.cms.db.Site;
-import com.psddev.cms.db.SiteSettings;
 import com.psddev.cms.db.ToolUi;
 import com.psddev.cms.db.ToolUser;
 import com.psddev.cms.tool.Dashboard;
@@ -88,18 +85,9 @@ public class ReviewActivityWidget extends DefaultDashboardWidget {
                 .collect(Collectors.toList());
         } else {
 
-            ReviewCycleSettings settings = SiteSettings.get(site, s -> s.as(ReviewCycleSiteSettings.class).getSettings());
-
-            List<ObjectType> mapsList;
-
-            if (settings != null) {
-                mapsList = SiteSettings.get(
-                        site,
-                        s -> settings.getContentTypeMaps())
-                    .stream()
-                    .map(ReviewCycleContentTypeMap::getContentType)
-                    .collect(Collectors.toList());
+            ReviewCycleSettingsSnapshot snapshot = ReviewCycleSettingsSnapshot.get(site);
 
+            if (snapshot != null) {
                 configuredObjectTypes = Query.from(HasReviewCycle.class)
                     .where("* matches *")
                     .and(ReviewCycleContentModification.NEXT_REVIEW_DATE_FIELD_INTERNAL_NAME + " != missing")
@@ -113,7 +101,7 @@ public class ReviewActivityWidget extends DefaultDashboardWidget {
                     .map(String.class::cast)
                     .map(UuidUtils::fromString)
                     .map(ObjectType::getInstance)
-                    .filter(mapsList::contains)
+                    .filter(snapshot::hasContentType)
                     .sorted()
                     .collect(Collectors.toList());
             } else {